@@ -0,0 +1,40 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Priprema katalog zadate veličine pre prvog pristupa {@link FilmCatalog}-u.
+ * JMH pokreće svaku kombinaciju parametara u novom JVM-u, pa je dovoljno
+ * postaviti {@code film.katalog.podaci} u {@code @Setup} metodi.
+ * Veličina 0 znači katalog iz {@code film_podaci.ttl}.
+ */
+final class BenchmarkCatalog {
+
+    private static final long SEED = 42L;
+
+    private BenchmarkCatalog() {
+    }
+
+    static FilmCatalog load(int brojFilmova) throws IOException {
+        prepare(brojFilmova);
+        return FilmCatalog.getInstance();
+    }
+
+    static void prepare(int brojFilmova) throws IOException {
+        if (brojFilmova <= 0) {
+            return;
+        }
+        Path file = Path.of("target", "jmh-katalog-" + brojFilmova + ".ttl");
+        if (!Files.exists(file)) {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "jmh-katalog", ".tmp");
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                new SyntheticCatalogGenerator(brojFilmova, SEED).write(out);
+            }
+            Files.move(tmp, file);
+        }
+        System.setProperty(FilmCatalog.DATA_FILE_PROPERTY, file.toString());
+    }
+}
@@ -0,0 +1,64 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pravljenje {@link CbrNeighborGraph}-a za ceo katalog i dopuna grafa kada
+ * se katalogu doda {@code dodato} filmova. Oba se mere jednim pozivom, jer
+ * jedan poziv ocenjuje ceo katalog za svaki film.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CbrNeighborGraphBenchmark {
+
+    @Param({"10000", "100000"})
+    public int brojFilmova;
+
+    @Param({"20"})
+    public int susedi;
+
+    @Param({"100"})
+    public int dodato;
+
+    private ColumnarCaseBase baza;
+    private CbrNeighborGraph stari;
+
+    @Setup
+    public void setup() throws Exception {
+        List<MovieCase> filmovi;
+        try (CbrRecommendationService service = new CbrRecommendationService(BenchmarkCatalog.load(brojFilmova))) {
+            filmovi = service.getAllMovies();
+        }
+        baza = new ColumnarCaseBase(filmovi, CbrRecommendationService.createSimilarityConfig(),
+                                    CbrRecommendationService.GODINA_INTERVAL);
+        stari = CbrNeighborGraph.create(new ColumnarCaseBase(filmovi.subList(0, filmovi.size() - dodato),
+                                                             CbrRecommendationService.createSimilarityConfig(),
+                                                             CbrRecommendationService.GODINA_INTERVAL),
+                                        susedi, null);
+    }
+
+    @Benchmark
+    public CbrNeighborGraph create() {
+        return CbrNeighborGraph.create(baza, susedi, null);
+    }
+
+    @Benchmark
+    public CbrNeighborGraph update() {
+        return stari.update(baza);
+    }
+}
@@ -0,0 +1,62 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preporuka sličnih filmova u stabilnom stanju; upitni film se menja
+ * u svakom pozivu, redom kroz ceo katalog. Parametar {@code kolone} bira
+ * između {@link ColumnarCaseBase} i jCOLIBRI {@code NNScoringMethod}, a
+ * {@code blokovi} da li kolonsko ocenjivanje ide kroz {@link CaseBlockingIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CbrRetrievalBenchmark {
+
+    @Param({"0", "10000", "100000"})
+    public int brojFilmova;
+
+    @Param({"true", "false"})
+    public boolean kolone;
+
+    @Param({"true", "false"})
+    public boolean blokovi;
+
+    private CbrRecommendationService service;
+    private String[] filmovi;
+    private int sledeci;
+
+    @Setup
+    public void setup() throws Exception {
+        System.setProperty(CbrRecommendationService.COLUMNAR_PROPERTY, String.valueOf(kolone));
+        System.setProperty(CbrRecommendationService.BLOCKING_PROPERTY, String.valueOf(blokovi));
+        service = new CbrRecommendationService(BenchmarkCatalog.load(brojFilmova));
+        filmovi = service.getAllMovies().stream().map(MovieCase::getId).toArray(String[]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public List<CbrRecommendationService.MovieRecommendation> findSimilarMovies() {
+        sledeci = (sledeci + 1) % filmovi.length;
+        return service.findSimilarMovies(filmovi[sledeci]);
+    }
+}
@@ -0,0 +1,76 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * COG defuzzifikacija istih aktivacija skalarno i u SIMD trakama, kao i cela
+ * ocena generisanim evaluatorom (skalarna petlja razvijena po termima) radi
+ * poređenja. Vektorska verzija zahteva {@code --add-modules jdk.incubator.vector},
+ * koji {@code benchmark} profil prosleđuje JVM-u.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CogDefuzzifierBenchmark {
+
+    private static final int BROJ_OCENA = 1024;
+
+    private CogDefuzzifier skalarni;
+    private CogDefuzzifier vektorski;
+    private double[][] ocene;
+    private double[][] aktivacije;
+    private int sledeca;
+
+    @Setup
+    public void setup() {
+        skalarni = CogDefuzzifier.scalar();
+        vektorski = CogDefuzzifier.vector();
+        if (vektorski == null) {
+            throw new IllegalStateException("Vector API nije dostupan, pokrenuti sa --add-modules jdk.incubator.vector");
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        ocene = new double[BROJ_OCENA][5];
+        aktivacije = new double[BROJ_OCENA][skalarni.getTermCount()];
+        for (int i = 0; i < BROJ_OCENA; i++) {
+            double[] o = ocene[i];
+            for (int k = 0; k < o.length; k++) {
+                o[k] = 1.0 + random.nextDouble() * 9.0;
+            }
+            FilmKvalitetEvaluator.activations(o[0], o[1], o[2], o[3], o[4], aktivacije[i]);
+        }
+    }
+
+    private int sledeca() {
+        sledeca = (sledeca + 1) % BROJ_OCENA;
+        return sledeca;
+    }
+
+    @Benchmark
+    public double skalarno() {
+        return skalarni.defuzzify(aktivacije[sledeca()]);
+    }
+
+    @Benchmark
+    public double vektorski() {
+        return vektorski.defuzzify(aktivacije[sledeca()]);
+    }
+
+    @Benchmark
+    public double generisaniEvaluator() {
+        double[] o = ocene[sledeca()];
+        return FilmKvalitetEvaluator.evaluate(o[0], o[1], o[2], o[3], o[4]);
+    }
+}
@@ -0,0 +1,61 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hladan start: svaki fork meri tačno jedno učitavanje u svežem JVM-u,
+ * uključujući učitavanje klasa i neoptimizovan kod. Merenja SPARQL i CBR
+ * servisa uključuju i učitavanje kataloga, kao pri pokretanju aplikacije.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class ColdStartBenchmark {
+
+    @Param({"0", "10000", "100000"})
+    public int brojFilmova;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkCatalog.prepare(brojFilmova);
+    }
+
+    @Benchmark
+    public FilmCatalog ucitavanjeKataloga() {
+        return FilmCatalog.getInstance();
+    }
+
+    @Benchmark
+    public SparqlQueryService sparqlServis() {
+        try (SparqlQueryService service = new SparqlQueryService(FilmCatalog.getInstance())) {
+            return service;
+        }
+    }
+
+    @Benchmark
+    public CbrRecommendationService cbrServis() {
+        try (CbrRecommendationService service = new CbrRecommendationService(FilmCatalog.getInstance())) {
+            return service;
+        }
+    }
+
+    @Benchmark
+    public FuzzyEvaluationService fuzzyServis() {
+        try (FuzzyEvaluationService service = new FuzzyEvaluationService()) {
+            return service;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy ocena jednog filma u stabilnom stanju, iz jedne niti i iz svih
+ * jezgara nad istim servisom, kao i ocena celog niza filmova kroz
+ * {@link FuzzyEvaluationService#evaluateBatch}, generisanim evaluatorom i
+ * interpreterom, kao i iz tabele unapred izračunatih ocena. Parametar
+ * {@code instrumentacija} meri cenu brojanja aktiviranih pravila. Ne zavisi
+ * od veličine kataloga, pa nema parametar {@code brojFilmova}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FuzzyEvaluationBenchmark {
+
+    private static final int BROJ_OCENA = 1024;
+
+    @Param({"true", "false"})
+    public boolean kompajlirano;
+
+    /** Broj tačaka tabele po osi, 0 bez tabele; tabela se pravi samo uz generisani evaluator. */
+    @Param({"0", "19"})
+    public int tabela;
+
+    @Param({"false", "true"})
+    public boolean instrumentacija;
+
+    private FuzzyEvaluationService service;
+    private double[][] ocene;
+    private double[][] kolone;
+    private double[] kvalitet;
+    private byte[] kategorije;
+
+    @State(Scope.Thread)
+    public static class Ulazi {
+        private int sledeca;
+
+        double[] sledeca(double[][] ocene) {
+            sledeca = (sledeca + 1) % ocene.length;
+            return ocene[sledeca];
+        }
+    }
+
+    @Setup
+    public void setup() {
+        System.setProperty(FuzzyEvaluationService.COMPILED_PROPERTY, String.valueOf(kompajlirano));
+        System.setProperty(FuzzyEvaluationService.LOOKUP_TABLE_POINTS_PROPERTY, String.valueOf(tabela));
+        System.setProperty(FuzzyEvaluationService.INSTRUMENTATION_PROPERTY, String.valueOf(instrumentacija));
+        service = new FuzzyEvaluationService();
+        SplittableRandom random = new SplittableRandom(42);
+        ocene = new double[BROJ_OCENA][5];
+        for (double[] ocena : ocene) {
+            for (int i = 0; i < ocena.length; i++) {
+                ocena[i] = 1.0 + random.nextDouble() * 9.0;
+            }
+        }
+        kolone = new double[5][BROJ_OCENA];
+        for (int film = 0; film < BROJ_OCENA; film++) {
+            for (int i = 0; i < kolone.length; i++) {
+                kolone[i][film] = ocene[film][i];
+            }
+        }
+        kvalitet = new double[BROJ_OCENA];
+        kategorije = new byte[BROJ_OCENA];
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public FuzzyEvaluationService.FuzzyResult evaluateFilm(Ulazi ulazi) {
+        double[] o = ulazi.sledeca(ocene);
+        return service.evaluateFilm(o[0], o[1], o[2], o[3], o[4]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public FuzzyEvaluationService.FuzzyResult evaluateFilmSvaJezgra(Ulazi ulazi) {
+        double[] o = ulazi.sledeca(ocene);
+        return service.evaluateFilm(o[0], o[1], o[2], o[3], o[4]);
+    }
+
+    /** Jedan poziv ocenjuje ceo niz, a rezultat se prijavljuje po filmu. */
+    @Benchmark
+    @OperationsPerInvocation(BROJ_OCENA)
+    public double[] evaluateBatch() {
+        service.evaluateBatch(kolone[0], kolone[1], kolone[2], kolone[3], kolone[4], kvalitet, kategorije);
+        return kvalitet;
+    }
+}
@@ -0,0 +1,75 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pretraga po žanru i žanru/godini u stabilnom stanju, preko indeksa i
+ * direktno kroz SPARQL, sa kešom rezultata i bez njega.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SparqlSearchBenchmark {
+
+    private static final String[] ZANROVI = { "Drama", "Komedija", "Akcija", "Triler", "Horor", "Naučna fantastika" };
+
+    @Param({"0", "10000", "100000"})
+    public int brojFilmova;
+
+    @Param({"true", "false"})
+    public boolean indeks;
+
+    private SparqlQueryService saKesom;
+    private SparqlQueryService bezKesa;
+    private int sledeci;
+
+    @Setup
+    public void setup() throws Exception {
+        FilmCatalog catalog = BenchmarkCatalog.load(brojFilmova);
+        System.setProperty(SparqlQueryService.GENRE_INDEX_PROPERTY, String.valueOf(indeks));
+        saKesom = new SparqlQueryService(catalog);
+        System.setProperty(SparqlQueryService.CACHE_SIZE_PROPERTY, "0");
+        bezKesa = new SparqlQueryService(catalog);
+    }
+
+    @TearDown
+    public void tearDown() {
+        saKesom.close();
+        bezKesa.close();
+    }
+
+    private String sledeciZanr() {
+        sledeci = (sledeci + 1) % ZANROVI.length;
+        return ZANROVI[sledeci];
+    }
+
+    @Benchmark
+    public List<FilmResult> searchByGenre() {
+        return bezKesa.searchByGenre(sledeciZanr());
+    }
+
+    @Benchmark
+    public List<FilmResult> searchByGenreAndYear() {
+        return bezKesa.searchByGenreAndYear(sledeciZanr(), 1994 + sledeci);
+    }
+
+    @Benchmark
+    public List<FilmResult> searchByGenreKesirano() {
+        return saKesom.searchByGenre(sledeciZanr());
+    }
+}
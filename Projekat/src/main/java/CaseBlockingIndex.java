@@ -0,0 +1,253 @@
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Indeks koji za preporuku ocenjuje samo slučajeve koji još mogu ući među
+ * {@code k} najsličnijih, umesto celog {@link ColumnarCaseBase}-a. Slučajevi
+ * su u blokovima po naslovu, režiseru i svakom svom žanru, a unutar bloka
+ * poređani po godini. Blokovi se obilaze od onih koji se sa upitom poklapaju
+ * u više atributa: prvo isti naslov, pa isti režiser, blokovi žanrova upita i
+ * na kraju svi ostali, a svaki blok od upitne godine ka daljim godinama.
+ * <p>
+ * Za slučaj u bloku se zna koja poklapanja još može imati, pa je gornja
+ * granica njegove sličnosti ista formula sa tim poklapanjima i njegovom
+ * stvarnom sličnošću godine. Granica se računa istim operacijama u
+ * pokretnom zarezu kao i sličnost, koje su monotone, pa nikad nije manja od
+ * nje. Slučaj čija granica ne bi ušla u {@link TopKHeap} se preskače, a
+ * kada granica padne ispod praga, isto važi i za sve dalje godine u tom
+ * bloku. Rezultat je zato isti kao pri ocenjivanju svih slučajeva, sa istim
+ * redosledom jednakih ocena.
+ * <p>
+ * Kod uobičajenih težina (žanrovi 0.5, režiser 0.3) slučaj bez zajedničkog
+ * žanra i režisera ne može preteći slučaj istih žanrova iz iste godine, pa
+ * se ocenjuje tek mali deo kataloga oko upitne godine.
+ */
+public class CaseBlockingIndex {
+
+    private static final int NEPOZNATO = -1;
+    private static final int NEPOZNATA_GODINA = Integer.MIN_VALUE;
+
+    // Blokovi redom kojim se obilaze, posle bloka naslova
+    private static final int BLOK_REZISER = 0;
+    private static final int BLOK_ZANR = 1;
+    private static final int BLOK_OSTALI = 2;
+
+    private final ColumnarCaseBase caseBase;
+    private final boolean monotone;
+    private final Blocks naslovi;
+    private final Blocks reziseri;
+    private final Blocks zanrovi;
+    private final Blocks svi;
+
+    public CaseBlockingIndex(ColumnarCaseBase caseBase) {
+        this.caseBase = caseBase;
+        this.monotone = caseBase.hasMonotoneWeights();
+        int n = caseBase.size();
+
+        // Redosled po (godina, indeks); nepoznata godina je najmanja, pa je na početku svakog bloka
+        long[] kljucevi = new long[n];
+        for (int i = 0; i < n; i++) {
+            kljucevi[i] = ((long) caseBase.year(i) << 32) | i;
+        }
+        Arrays.sort(kljucevi);
+        int[] redosled = new int[n];
+        for (int i = 0; i < n; i++) {
+            redosled[i] = (int) kljucevi[i];
+        }
+
+        this.naslovi = new Blocks(caseBase, redosled, i -> single(caseBase.titleCode(i)));
+        this.reziseri = new Blocks(caseBase, redosled, i -> single(caseBase.directorCode(i)));
+        this.zanrovi = new Blocks(caseBase, redosled, caseBase::genreCodes);
+        this.svi = new Blocks(caseBase, redosled, i -> single(0));
+    }
+
+    private static int[] single(int code) {
+        return code != NEPOZNATO ? new int[] {code} : new int[0];
+    }
+
+    /**
+     * Slučajevi grupisani po kodovima atributa, svaka grupa poređana po
+     * (godina, indeks). Slučaj je u grupi svakog svog koda, a bez kodova nije
+     * ni u jednoj.
+     */
+    private static final class Blocks {
+        // Grupa c je [offsets[c], offsets[c + 1]), a slučajevi sa godinom počinju od firstYear[c]
+        private final int[] offsets;
+        private final int[] firstYear;
+        private final int[] entries;
+        private final int[] years;
+
+        Blocks(ColumnarCaseBase caseBase, int[] redosled, IntFunction<int[]> codes) {
+            int[][] kodovi = new int[redosled.length][];
+            int brojKodova = 0;
+            for (int i = 0; i < redosled.length; i++) {
+                kodovi[i] = codes.apply(i);
+                for (int c : kodovi[i]) {
+                    brojKodova = Math.max(brojKodova, c + 1);
+                }
+            }
+            offsets = new int[brojKodova + 1];
+            for (int[] kodoviSlucaja : kodovi) {
+                for (int c : kodoviSlucaja) {
+                    offsets[c + 1]++;
+                }
+            }
+            for (int c = 0; c < brojKodova; c++) {
+                offsets[c + 1] += offsets[c];
+            }
+
+            entries = new int[offsets[brojKodova]];
+            years = new int[entries.length];
+            firstYear = Arrays.copyOf(offsets, brojKodova);
+            int[] sledece = Arrays.copyOf(offsets, brojKodova);
+            for (int i : redosled) {
+                for (int c : kodovi[i]) {
+                    int pos = sledece[c]++;
+                    entries[pos] = i;
+                    years[pos] = caseBase.year(i);
+                    if (years[pos] == NEPOZNATA_GODINA) {
+                        firstYear[c] = pos + 1;
+                    }
+                }
+            }
+        }
+    }
+
+    public ColumnarCaseBase getCaseBase() {
+        return caseBase;
+    }
+
+    /**
+     * Isto što i {@link ColumnarCaseBase#topK}: u {@code heap} ostaje
+     * {@link TopKHeap#capacity()} slučajeva najsličnijih slučaju
+     * {@code queryIndex}, bez njega samog.
+     */
+    public void topK(int queryIndex, TopKHeap heap) {
+        if (!monotone) {
+            caseBase.topK(queryIndex, heap);
+            return;
+        }
+        int qNaslov = caseBase.titleCode(queryIndex);
+        int[] qZanrovi = caseBase.genreCodes(queryIndex);
+        int qReziser = caseBase.directorCode(queryIndex);
+
+        if (qNaslov != NEPOZNATO) {
+            for (int pos = naslovi.offsets[qNaslov]; pos < naslovi.offsets[qNaslov + 1]; pos++) {
+                int i = naslovi.entries[pos];
+                if (i != queryIndex) {
+                    heap.offer(i, caseBase.similarity(queryIndex, i));
+                }
+            }
+        }
+        if (qReziser != NEPOZNATO) {
+            scan(reziseri, qReziser, BLOK_REZISER, queryIndex, qZanrovi.length > 0, heap);
+        }
+        for (int zanr : qZanrovi) {
+            scan(zanrovi, zanr, BLOK_ZANR, queryIndex, true, heap);
+        }
+        if (svi.entries.length > 0) {
+            scan(svi, 0, BLOK_OSTALI, queryIndex, false, heap);
+        }
+    }
+
+    /**
+     * Obilazi grupu {@code c} od upitne godine na obe strane, dok granica
+     * sličnosti može ući u {@code heap}. Slučajevi iz ranijih blokova se
+     * preskaču, pa se u bloku režisera žanrovi još mogu poklopiti, u bloku
+     * žanra samo žanrovi, a u poslednjem ništa; naslov nigde. Sličnost
+     * žanrova je najviše 1 ako {@code moguZanrovi}.
+     */
+    private void scan(Blocks blocks, int c, int blok, int queryIndex, boolean moguZanrovi, TopKHeap heap) {
+        double simZanr = moguZanrovi ? 1.0 : 0.0;
+        double simReziser = blok == BLOK_REZISER ? 1.0 : 0.0;
+        int qGodina = caseBase.year(queryIndex);
+        int from = blocks.offsets[c];
+        int first = blocks.firstYear[c];
+        int to = blocks.offsets[c + 1];
+
+        // Bez godine, sa bilo koje strane, sličnost godine je 0 pa je granica ista za ceo deo
+        double bezGodine = caseBase.combine(0.0, simZanr, 0.0, simReziser);
+        scanAll(blocks, c, from, first, blok, queryIndex, bezGodine, heap);
+        if (qGodina == NEPOZNATA_GODINA) {
+            scanAll(blocks, c, first, to, blok, queryIndex, bezGodine, heap);
+            return;
+        }
+
+        int desno = lowerBound(blocks.years, first, to, qGodina);
+        int levo = desno - 1;
+        while (desno < to || levo >= first) {
+            boolean udesno = desno < to
+                && (levo < first || (long) blocks.years[desno] - qGodina <= (long) qGodina - blocks.years[levo]);
+            int pos = udesno ? desno++ : levo--;
+            int godina = blocks.years[pos];
+            double granica = caseBase.combine(0.0, simZanr, caseBase.yearSimilarity(qGodina, godina), simReziser);
+            if (granica < heap.threshold()) {
+                // Dalje na ovoj strani su samo udaljenije godine, sa još manjom granicom
+                if (udesno) {
+                    desno = to;
+                } else {
+                    levo = first - 1;
+                }
+                continue;
+            }
+            int i = blocks.entries[pos];
+            if (i == queryIndex || coveredEarlier(queryIndex, i, blok, c)) {
+                continue;
+            }
+            if (!heap.accepts(i, granica)) {
+                // Granica je jednaka pragu, a indeks veći; desno ostatak iste godine ima još veće indekse
+                if (udesno) {
+                    desno = lowerBound(blocks.years, desno, to, godina + 1);
+                }
+                continue;
+            }
+            heap.offer(i, caseBase.similarity(queryIndex, i));
+        }
+    }
+
+    private void scanAll(Blocks blocks, int c, int from, int to, int blok, int queryIndex, double granica,
+                         TopKHeap heap) {
+        if (granica < heap.threshold()) {
+            return;
+        }
+        for (int pos = from; pos < to; pos++) {
+            int i = blocks.entries[pos];
+            if (i != queryIndex && !coveredEarlier(queryIndex, i, blok, c) && heap.accepts(i, granica)) {
+                heap.offer(i, caseBase.similarity(queryIndex, i));
+            }
+        }
+    }
+
+    /**
+     * Da li je slučaj već ocenjen u nekom bloku pre bloka {@code blok}; u
+     * bloku žanra {@code c} to su i blokovi zajedničkih žanrova sa manjim
+     * kodom.
+     */
+    private boolean coveredEarlier(int queryIndex, int i, int blok, int c) {
+        int qNaslov = caseBase.titleCode(queryIndex);
+        if (qNaslov != NEPOZNATO && caseBase.titleCode(i) == qNaslov) {
+            return true;
+        }
+        int qReziser = caseBase.directorCode(queryIndex);
+        if (blok > BLOK_REZISER && qReziser != NEPOZNATO && caseBase.directorCode(i) == qReziser) {
+            return true;
+        }
+        return blok >= BLOK_ZANR
+            && caseBase.sharesGenre(queryIndex, i, blok == BLOK_ZANR ? c : Integer.MAX_VALUE);
+    }
+
+    // Prvo mesto u [from, to) sa godinom bar {@code godina}
+    private static int lowerBound(int[] years, int from, int to, int godina) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (years[mid] < godina) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
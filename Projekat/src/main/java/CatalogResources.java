@@ -0,0 +1,77 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Otvaranje TTL fajlova kataloga i FCL pravila. Naziv se prvo tumači kao
+ * putanja na disku (npr. generisani katalog za testove opterećenja), a zatim
+ * kao classpath resurs.
+ */
+public final class CatalogResources {
+
+    private CatalogResources() {
+    }
+
+    public static InputStream open(String resource) throws IOException {
+        Path file = Path.of(resource);
+        if (Files.isRegularFile(file)) {
+            return Files.newInputStream(file);
+        }
+        InputStream in = CatalogResources.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IOException("Resurs " + resource + " nije pronađen ni na disku ni na classpath-u");
+        }
+        return in;
+    }
+
+    /**
+     * Brz opis resursa po kome se prepoznaje da li je promenjen, bez čitanja
+     * sadržaja: naziv, odakle se zaista čita (putanja na disku ili URL na
+     * classpath-u), veličina i vreme izmene, odvojeni tabom.
+     */
+    public static String describe(String resource) throws IOException {
+        Path file = Path.of(resource);
+        if (Files.isRegularFile(file)) {
+            return resource + "\t" + file.toAbsolutePath().normalize() + "\t" + Files.size(file)
+                + "\t" + Files.getLastModifiedTime(file).toMillis();
+        }
+        URL url = CatalogResources.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            throw new IOException("Resurs " + resource + " nije pronađen ni na disku ni na classpath-u");
+        }
+        URLConnection connection = url.openConnection();
+        return resource + "\t" + url + "\t" + connection.getContentLengthLong() + "\t" + connection.getLastModified();
+    }
+
+    /** SHA-256 sadržaja resursa; čita ceo resurs. */
+    public static String sha256(String resource) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(open(resource), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return hex(digest);
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 nije dostupan: " + e.getMessage());
+        }
+    }
+
+    public static String hex(MessageDigest digest) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
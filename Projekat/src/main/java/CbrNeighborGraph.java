@@ -0,0 +1,255 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Unapred izračunatih {@code k} najsličnijih filmova za svaki film iz
+ * {@link ColumnarCaseBase}, pa je preporuka samo čitanje jednog reda umesto
+ * ocenjivanja celog kataloga. Redovi su fiksne dužine, van heap-a: u
+ * direktnom baferu ili, ako je zadat fajl, u memorijski mapiranom fajlu koji
+ * se pri sledećem pokretanju samo mapira.
+ * <p>
+ * Red filma sadrži {@code k} parova (indeks suseda, sličnost) od
+ * najsličnijeg, sa -1 u praznim mestima ako film ima manje od {@code k}
+ * suseda. Redovi se računaju paralelno preko {@link ColumnarCaseBase#topK},
+ * pa su susedi i sličnosti isti kao pri ocenjivanju celog kataloga.
+ * <p>
+ * Kada se bazi dodaju filmovi na kraj, ostali redovi se ne računaju
+ * ponovo: novi film ulazi u red postojećeg filma samo ako je sličniji od
+ * njegovog poslednjeg suseda, pa se za postojeće filmove računa samo
+ * sličnost sa novim filmovima, a ceo red samo za nove filmove.
+ */
+public class CbrNeighborGraph {
+
+    private static final int MAGIC = 0x4B4E4E47;
+    private static final int VERSION = 1;
+    // magic, verzija, k, broj filmova, SHA-256 otisak baze slučajeva
+    private static final int HEADER_BYTES = 64;
+    private static final int FINGERPRINT_OFFSET = 16;
+    private static final int FINGERPRINT_BYTES = 32;
+    private static final int SLOT_BYTES = Integer.BYTES + Double.BYTES;
+    private static final int PRAZNO = -1;
+
+    private final ColumnarCaseBase caseBase;
+    private final int k;
+    private final int rowBytes;
+    private final ByteBuffer rows;
+    private final byte[] fingerprint;
+    private final Path file;
+    private final int computedRows;
+
+    private CbrNeighborGraph(ColumnarCaseBase caseBase, int k, ByteBuffer rows, byte[] fingerprint,
+                             Path file, int computedRows) {
+        this.caseBase = caseBase;
+        this.k = k;
+        this.rowBytes = k * SLOT_BYTES;
+        this.rows = rows;
+        this.fingerprint = fingerprint;
+        this.file = file;
+        this.computedRows = computedRows;
+    }
+
+    /**
+     * Pravi graf sa {@code k} suseda po filmu. Ako je {@code file} zadat i
+     * sadrži graf sa istim {@code k} za bazu koja počinje istim filmovima,
+     * postojeći redovi se preuzimaju i dopunjuju samo za dodate filmove;
+     * inače se graf izračuna ceo i upiše u fajl.
+     */
+    public static CbrNeighborGraph create(ColumnarCaseBase caseBase, int k, Path file) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Graf mora imati bar jednog suseda po filmu, a zadato je: " + k);
+        }
+        dataBytes(caseBase.size(), k);
+        try {
+            if (file != null) {
+                try (FileChannel channel = open(file)) {
+                    int stored = channel != null ? storedSize(channel, caseBase, k) : -1;
+                    if (stored == caseBase.size()) {
+                        ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, dataBytes(stored, k))
+                                                 .order(ByteOrder.LITTLE_ENDIAN);
+                        return new CbrNeighborGraph(caseBase, k, data, caseBase.fingerprint(stored), file, 0);
+                    }
+                    if (stored >= 0) {
+                        ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, dataBytes(stored, k))
+                                                 .order(ByteOrder.LITTLE_ENDIAN);
+                        return extend(data, stored, caseBase, k, file);
+                    }
+                }
+            }
+            return extend(null, 0, caseBase, k, file);
+        } catch (IOException e) {
+            throw new RuntimeException("Greška pri radu sa grafom suseda " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Graf za novu bazu slučajeva. Ako nova baza počinje istim filmovima kao
+     * ova, računaju se samo redovi novih filmova i redovi u koje neki od
+     * njih ulazi; inače se graf izračuna ceo. Ovaj graf se ne menja, pa se
+     * iz njega može čitati dok se novi pravi.
+     */
+    public CbrNeighborGraph update(ColumnarCaseBase newCaseBase) {
+        dataBytes(newCaseBase.size(), k);
+        int n = size();
+        boolean prosirenje = newCaseBase.size() >= n
+            && Arrays.equals(fingerprint, newCaseBase.fingerprint(n));
+        if (prosirenje && newCaseBase.size() == n) {
+            return new CbrNeighborGraph(newCaseBase, k, rows, fingerprint, file, 0);
+        }
+        try {
+            return prosirenje
+                ? extend(rows, n, newCaseBase, k, file)
+                : extend(null, 0, newCaseBase, k, file);
+        } catch (IOException e) {
+            throw new RuntimeException("Greška pri radu sa grafom suseda " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static long dataBytes(int n, int k) {
+        long bytes = (long) n * k * SLOT_BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graf sa " + n + " filmova i " + k + " suseda je prevelik");
+        }
+        return bytes;
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return Files.isRegularFile(file) ? FileChannel.open(file, StandardOpenOption.READ) : null;
+    }
+
+    // Broj filmova u fajlu ako je graf u njemu upotrebljiv za datu bazu, inače -1
+    private static int storedSize(FileChannel channel, ColumnarCaseBase caseBase, int k) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            return -1;
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int n = header.getInt(12);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != k
+                || n < 0 || n > caseBase.size() || channel.size() != HEADER_BYTES + dataBytes(n, k)) {
+            return -1;
+        }
+        byte[] stored = new byte[FINGERPRINT_BYTES];
+        header.get(FINGERPRINT_OFFSET, stored);
+        return Arrays.equals(stored, caseBase.fingerprint(n)) ? n : -1;
+    }
+
+    /**
+     * Preuzima prvih {@code oldSize} redova iz {@code oldRows}, ažurira one u
+     * koje ulazi neki od dodatih filmova i računa redove dodatih filmova.
+     * Sa fajlom se graf upisuje u privremeni fajl koji zatim zamenjuje
+     * stari, pa prekinuto pravljenje ne ostavlja neispravan graf, a stari
+     * mapirani redovi ostaju nepromenjeni.
+     */
+    private static CbrNeighborGraph extend(ByteBuffer oldRows, int oldSize, ColumnarCaseBase caseBase,
+                                           int k, Path file) throws IOException {
+        int n = caseBase.size();
+        long dataBytes = dataBytes(n, k);
+        byte[] fingerprint = caseBase.fingerprint(n);
+        if (file == null) {
+            ByteBuffer data = ByteBuffer.allocateDirect((int) dataBytes).order(ByteOrder.LITTLE_ENDIAN);
+            int computed = fill(oldRows, oldSize, caseBase, k, data);
+            return new CbrNeighborGraph(caseBase, k, data, fingerprint, null, computed);
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int computed;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES, dataBytes)
+                                     .order(ByteOrder.LITTLE_ENDIAN);
+            computed = fill(oldRows, oldSize, caseBase, k, data);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, k).putInt(12, n)
+                  .put(FINGERPRINT_OFFSET, fingerprint);
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, dataBytes)
+                                     .order(ByteOrder.LITTLE_ENDIAN);
+            return new CbrNeighborGraph(caseBase, k, data, fingerprint, file, computed);
+        }
+    }
+
+    // Popunjava redove i vraća koliko ih je izračunato ili ažurirano
+    private static int fill(ByteBuffer oldRows, int oldSize, ColumnarCaseBase caseBase, int k, ByteBuffer rows) {
+        int rowBytes = k * SLOT_BYTES;
+        int n = caseBase.size();
+        AtomicInteger computed = new AtomicInteger();
+        if (oldSize > 0) {
+            rows.put(0, oldRows, 0, oldSize * rowBytes);
+        }
+
+        IntStream.range(0, n).parallel().forEach(i -> {
+            TopKHeap heap = new TopKHeap(k);
+            if (i >= oldSize) {
+                caseBase.topK(i, heap);
+            } else {
+                int offset = i * rowBytes;
+                for (int slot = 0; slot < k && rows.getInt(offset) != PRAZNO; slot++, offset += SLOT_BYTES) {
+                    heap.offer(rows.getInt(offset), rows.getDouble(offset + Integer.BYTES));
+                }
+                boolean promenjen = false;
+                for (int j = oldSize; j < n; j++) {
+                    double score = caseBase.similarity(i, j);
+                    if (heap.accepts(j, score)) {
+                        heap.offer(j, score);
+                        promenjen = true;
+                    }
+                }
+                if (!promenjen) {
+                    return;
+                }
+            }
+            computed.incrementAndGet();
+            double[] scores = new double[heap.size()];
+            int[] najbolji = heap.drainSorted(scores);
+            int offset = i * rowBytes;
+            for (int slot = 0; slot < k; slot++, offset += SLOT_BYTES) {
+                boolean popunjen = slot < najbolji.length;
+                rows.putInt(offset, popunjen ? najbolji[slot] : PRAZNO);
+                rows.putDouble(offset + Integer.BYTES, popunjen ? scores[slot] : 0.0);
+            }
+        });
+        return computed.get();
+    }
+
+    /**
+     * Upisuje do {@code indices.length} najsličnijih suseda filma
+     * {@code index}, od najsličnijeg, i vraća koliko ih je upisano; sličnosti
+     * se istim redom upisuju u {@code scores}.
+     */
+    public int neighbors(int index, int[] indices, double[] scores) {
+        int offset = index * rowBytes;
+        int limit = Math.min(k, indices.length);
+        int count = 0;
+        for (; count < limit; count++, offset += SLOT_BYTES) {
+            int sused = rows.getInt(offset);
+            if (sused == PRAZNO) {
+                break;
+            }
+            indices[count] = sused;
+            scores[count] = rows.getDouble(offset + Integer.BYTES);
+        }
+        return count;
+    }
+
+    /** Baza slučajeva na koju se odnose indeksi suseda. */
+    public ColumnarCaseBase getCaseBase() { return caseBase; }
+    public int size() { return caseBase.size(); }
+    public int getNeighbourCount() { return k; }
+
+    /** Broj redova koji su izračunati ili ažurirani pri pravljenju ovog grafa. */
+    public int getComputedRows() { return computedRows; }
+    public long getSizeBytes() { return (long) rows.capacity(); }
+}
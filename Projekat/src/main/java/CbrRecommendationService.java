@@ -7,60 +7,148 @@ import ucm.gaia.jcolibri.method.retrieve.NNretrieval.similarity.local.Equal;
 import ucm.gaia.jcolibri.method.retrieve.NNretrieval.similarity.local.Interval;
 import ucm.gaia.jcolibri.method.retrieve.selection.SelectCases;
 import org.apache.jena.query.*;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.util.FileManager;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
-public class CbrRecommendationService {
+public class CbrRecommendationService implements AutoCloseable {
+
+    /**
+     * Sistemsko svojstvo kojim se slični filmovi, umesto ocenjivanjem nad
+     * kolonama {@link ColumnarCaseBase}-a, traže kroz jCOLIBRI
+     * {@code NNScoringMethod}.
+     */
+    public static final String COLUMNAR_PROPERTY = "film.cbr.kolone";
+
+    /**
+     * Sistemsko svojstvo kojim se isključuje {@link CaseBlockingIndex}, pa
+     * kolonsko ocenjivanje obilazi ceo katalog.
+     */
+    public static final String BLOCKING_PROPERTY = "film.cbr.blokovi";
+
+    /**
+     * Broj unapred izračunatih suseda po filmu ({@link CbrNeighborGraph});
+     * 0 (podrazumevano) isključuje graf i svaka preporuka se računa
+     * ocenjivanjem celog kataloga. Preporuke za više filmova od ovoga se uvek
+     * računaju.
+     */
+    public static final String GRAPH_NEIGHBOURS_PROPERTY = "film.cbr.graf.susedi";
+
+    /** Fajl u koji se graf suseda upisuje i iz kog se mapira pri sledećem pokretanju. */
+    public static final String GRAPH_FILE_PROPERTY = "film.cbr.graf.fajl";
+
+    /** Broj preporuka koji vraća {@link #findSimilarMovies(String)}. */
+    public static final int BROJ_PREPORUKA = 5;
+
+    static final double GODINA_INTERVAL = 10;
     
-    private Model model;
-    private final String namespace = "http://www.iz-projekat/film-sema#";
-    private Collection<CBRCase> cases;
-    private NNConfig simConfig;
+    private final FilmCatalog catalog;
+    private final String namespace = FilmCatalog.NAMESPACE;
+    // Menja se jednim upisom, pa preporuka uvek vidi bazu i indekse iz istog učitavanja
+    private volatile CaseBaseSnapshot snapshot;
+    private final Runnable changeListener = this::onCatalogChanged;
     
     public CbrRecommendationService() {
+        this(FilmCatalog.getInstance());
+    }
+
+    public CbrRecommendationService(FilmCatalog catalog) {
+        this.catalog = catalog;
         try {
-            initializeRdfModel();
             initializeCbrSystem();
             System.out.println("CBR sistem uspešno inicijalizovan sa " + 
-                             cases.size() + " filmova");
+                             snapshot.caseBase.size() + " filmova");
         } catch (Exception e) {
             System.err.println("Greška pri inicijalizaciji CBR sistema: " + e.getMessage());
             throw e;
         }
+        catalog.addChangeListener(changeListener);
     }
-    
-    private void initializeRdfModel() {
+
+    /**
+     * Odjavljuje servis sa kataloga, pa se baza slučajeva više ne gradi
+     * ponovo pri promeni kataloga.
+     */
+    @Override
+    public void close() {
+        catalog.removeChangeListener(changeListener);
+    }
+
+    private void onCatalogChanged() {
         try {
-            model = ModelFactory.createDefaultModel();
-            FileManager.get().readModel(model, "src/main/resources/film_sema.ttl", "TTL");
-            FileManager.get().readModel(model, "src/main/resources/film_podaci.ttl", "TTL");
-        } catch (Exception e) {
-            throw new RuntimeException("Greška pri učitavanju ontologije: " + e.getMessage());
+            initializeCbrSystem();
+        } catch (RuntimeException e) {
+            System.err.println("Greška pri ponovnom učitavanju CBR sistema: " + e.getMessage());
         }
     }
     
-    private void initializeCbrSystem() {
+    // Sinhronizovano, jer se novi graf suseda gradi dopunom prethodnog
+    private synchronized void initializeCbrSystem() {
         try {
-            cases = createCasesFromOntology();
-            
-            simConfig = createSimilarityConfig();
+            NNConfig simConfig = createSimilarityConfig();
+
+            CaseBaseSnapshot prethodno = snapshot;
+            List<MovieCase> filmovi = loadMoviesFromOntology();
+            if (prethodno != null) {
+                filmovi = keepPreviousOrder(filmovi, prethodno.caseBase);
+            }
+            ColumnarCaseBase novaBaza = new ColumnarCaseBase(filmovi, simConfig, GODINA_INTERVAL);
+
+            List<CBRCase> cases = null;
+            CaseBlockingIndex blockingIndex = null;
+            if (!Boolean.parseBoolean(System.getProperty(COLUMNAR_PROPERTY, "true"))) {
+                cases = createCbrCases(novaBaza);
+            } else if (Boolean.parseBoolean(System.getProperty(BLOCKING_PROPERTY, "true"))) {
+                blockingIndex = new CaseBlockingIndex(novaBaza);
+            }
+            CbrNeighborGraph neighborGraph = createNeighborGraph(novaBaza,
+                                                                 prethodno != null ? prethodno.neighborGraph : null);
+
+            snapshot = new CaseBaseSnapshot(simConfig, novaBaza, cases, blockingIndex, neighborGraph,
+                                            createTitleIndex(novaBaza));
             
         } catch (Exception e) {
             throw new RuntimeException("Greška pri inicijalizaciji CBR sistema: " + e.getMessage());
         }
     }
     
-    private Collection<CBRCase> createCasesFromOntology() {
-        List<MovieCase> movieCases = loadMoviesFromOntology();
-        
-        Collection<CBRCase> cbrCases = new ArrayList<>();
+    /**
+     * Filmovi koji su već bili u bazi ostaju na svojim mestima, a novi idu
+     * na kraj redom iz upita. Tako je stara baza početak nove kad su filmovi
+     * samo dodati, pa se graf suseda dopunjuje umesto da se gradi iz
+     * početka; uklonjen ili izmenjen film i dalje znači novi graf.
+     */
+    private static List<MovieCase> keepPreviousOrder(List<MovieCase> ucitani, ColumnarCaseBase prethodna) {
+        // Film sa više režisera ima više slučajeva, pa se čuvaju svi, redom
+        Map<String, List<MovieCase>> poFilmu = new LinkedHashMap<>();
+        for (MovieCase film : ucitani) {
+            poFilmu.computeIfAbsent(film.getId(), id -> new ArrayList<>(1)).add(film);
+        }
+
+        List<MovieCase> filmovi = new ArrayList<>(ucitani.size());
+        for (MovieCase stari : prethodna.asList()) {
+            List<MovieCase> slucajevi = poFilmu.get(stari.getId());
+            if (slucajevi != null && !slucajevi.isEmpty()) {
+                filmovi.add(slucajevi.remove(0));
+            }
+        }
+        for (List<MovieCase> slucajevi : poFilmu.values()) {
+            filmovi.addAll(slucajevi);
+        }
+        return filmovi;
+    }
+
+    private List<CBRCase> createCbrCases(ColumnarCaseBase baza) {
+        List<CBRCase> cbrCases = new ArrayList<>(baza.size());
         
-        for (MovieCase movieCase : movieCases) {
+        for (MovieCase movieCase : baza.asList()) {
             CBRCase cbrCase = new CBRCase();
             cbrCase.setDescription((CaseComponent) movieCase);
             cbrCases.add(cbrCase);
@@ -69,17 +157,82 @@ public class CbrRecommendationService {
         return cbrCases;
     }
     
-    private NNConfig createSimilarityConfig() {
+    /**
+     * Graf suseda za novu bazu. Postojeći graf se samo dopunjuje ako su
+     * filmovi dodati na kraj kataloga, a bez njega se preuzima graf iz
+     * fajla.
+     */
+    private static CbrNeighborGraph createNeighborGraph(ColumnarCaseBase baza, CbrNeighborGraph postojeci) {
+        int susedi = Integer.getInteger(GRAPH_NEIGHBOURS_PROPERTY, 0);
+        if (susedi <= 0) {
+            return null;
+        }
+        long start = System.currentTimeMillis();
+        CbrNeighborGraph graph;
+        if (postojeci != null && postojeci.getNeighbourCount() == susedi) {
+            graph = postojeci.update(baza);
+        } else {
+            String file = System.getProperty(GRAPH_FILE_PROPERTY);
+            graph = CbrNeighborGraph.create(baza, susedi, file != null ? Path.of(file) : null);
+        }
+        System.out.printf("Graf suseda: %d filmova x %d suseda (%.1f MB), izračunato %d redova za %d ms%n",
+                          graph.size(), susedi, graph.getSizeBytes() / (1024.0 * 1024.0),
+                          graph.getComputedRows(), System.currentTimeMillis() - start);
+        return graph;
+    }
+
+    private TitleIndex<MovieCase> createTitleIndex(ColumnarCaseBase baza) {
+        Map<String, List<String>> izvorniNaslovi = loadOriginalTitles();
+
+        TitleIndex.Builder<MovieCase> builder = new TitleIndex.Builder<>();
+        for (MovieCase movieCase : baza.asList()) {
+            List<String> naslovi = new ArrayList<>();
+            naslovi.add(movieCase.getNaslov());
+            naslovi.addAll(izvorniNaslovi.getOrDefault(movieCase.getId(), Collections.emptyList()));
+            builder.add(movieCase, naslovi);
+        }
+        return builder.build();
+    }
+
+    private Map<String, List<String>> loadOriginalTitles() {
+        String sparqlQuery =
+            "PREFIX : <" + namespace + ">" +
+            "SELECT ?film ?izvorniNaslov WHERE {" +
+            "  ?film a :Film ." +
+            "  ?film :izvorniNaslov ?izvorniNaslov ." +
+            "}";
+
+        Map<String, List<String>> izvorniNaslovi = new HashMap<>();
+        try {
+            Query query = QueryFactory.create(sparqlQuery);
+            catalog.read(() -> {
+                try (QueryExecution qe = catalog.createQueryExecution(query)) {
+                    ResultSet resultSet = qe.execSelect();
+                    while (resultSet.hasNext()) {
+                        QuerySolution solution = resultSet.nextSolution();
+                        izvorniNaslovi.computeIfAbsent(RdfValues.text(solution, "film"), k -> new ArrayList<>())
+                                      .add(RdfValues.text(solution, "izvorniNaslov"));
+                    }
+                }
+                return izvorniNaslovi;
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Greška pri učitavanju izvornih naslova: " + e.getMessage());
+        }
+        return izvorniNaslovi;
+    }
+
+    static NNConfig createSimilarityConfig() {
         NNConfig config = new NNConfig();
         config.setDescriptionSimFunction(new Average());
         
-        config.addMapping(new Attribute("zanr", MovieCase.class), new Equal());
-        config.setWeight(new Attribute("zanr", MovieCase.class), 0.5);
+        config.addMapping(new Attribute("sviZanrovi", MovieCase.class), new GenreJaccard());
+        config.setWeight(new Attribute("sviZanrovi", MovieCase.class), 0.5);
         
         config.addMapping(new Attribute("reziser", MovieCase.class), new Equal());  
         config.setWeight(new Attribute("reziser", MovieCase.class), 0.3);
         
-        config.addMapping(new Attribute("godina", MovieCase.class), new Interval(10));
+        config.addMapping(new Attribute("godina", MovieCase.class), new Interval(GODINA_INTERVAL));
         config.setWeight(new Attribute("godina", MovieCase.class), 0.15);
         
         config.addMapping(new Attribute("naslov", MovieCase.class), new Equal());
@@ -88,8 +241,15 @@ public class CbrRecommendationService {
         return config;
     }
     
+    /**
+     * Učitava filmove iz ontologije. Vrednosti koje se ponavljaju (žanrovi,
+     * režiseri, naslovi, godine) prolaze kroz rečnik, pa svi slučajevi dele
+     * jedan primerak svake vrednosti umesto sopstvene kopije po filmu.
+     */
     private List<MovieCase> loadMoviesFromOntology() {
         List<MovieCase> movieCases = new ArrayList<>();
+        Map<String, String> tekstovi = new HashMap<>();
+        Map<Integer, Integer> godine = new HashMap<>();
         
         String sparqlQuery = 
             "PREFIX : <" + namespace + ">" +
@@ -106,30 +266,36 @@ public class CbrRecommendationService {
             "    ?reziserObj :licnoIme ?reziserIme . " +
             "    ?reziserObj :prezime ?reziserPrezime " +
             "  }" +
-            "} GROUP BY ?film ?naslov ?godina ?reziserIme ?reziserPrezime";
+            "} GROUP BY ?film ?naslov ?godina ?reziserIme ?reziserPrezime" +
+            // Bez ORDER BY grupe dolaze redom iz heš mape, pa bi se redosled slučajeva menjao sa katalogom
+            " ORDER BY ?film ?naslov ?godina ?reziserIme ?reziserPrezime";
         
         try {
             Query query = QueryFactory.create(sparqlQuery);
-            QueryExecution qe = QueryExecutionFactory.create(query, model);
-            ResultSet resultSet = qe.execSelect();
-            
-            while (resultSet.hasNext()) {
-                QuerySolution solution = resultSet.nextSolution();
-                
-                String filmUri = solution.get("film").toString();
-                String naslov = getCleanValue(solution, "naslov");
-                String zanrovi = getCleanValue(solution, "zanrovi");
-                String zanr = zanrovi.contains("|") ? zanrovi.split("\\|")[0] : zanrovi;
-                Integer godina = parseYear(getCleanValue(solution, "godina"));
-                String reziser = buildDirectorName(solution);
-                
-                MovieCase movieCase = new MovieCase(filmUri, naslov, zanr, godina, reziser);
+            catalog.read(() -> {
+                try (QueryExecution qe = catalog.createQueryExecution(query)) {
+                    ResultSet resultSet = qe.execSelect();
 
-                movieCase.setSviZanrovi(zanrovi);
-                movieCases.add(movieCase);
-            }
-            
-            qe.close();
+                    while (resultSet.hasNext()) {
+                        QuerySolution solution = resultSet.nextSolution();
+
+                        String filmUri = RdfValues.text(solution, "film");
+                        String naslov = shared(tekstovi, RdfValues.text(solution, "naslov"));
+                        String zanrovi = shared(tekstovi, RdfValues.text(solution, "zanrovi"));
+                        String zanr = zanrovi.contains("|") ? shared(tekstovi, zanrovi.split("\\|")[0]) : zanrovi;
+                        int godina = RdfValues.intValue(solution, "godina");
+                        String reziser = shared(tekstovi, RdfValues.directorName(solution));
+
+                        MovieCase movieCase = new MovieCase(filmUri, naslov, zanr,
+                                                            shared(godine, godina == RdfValues.NEPOZNATO ? 0 : godina),
+                                                            reziser);
+
+                        movieCase.setSviZanrovi(zanrovi);
+                        movieCases.add(movieCase);
+                    }
+                }
+                return movieCases;
+            });
         } catch (Exception e) {
             throw new RuntimeException("Greška pri učitavanju filmova iz ontologije: " + e.getMessage());
         }
@@ -137,36 +303,58 @@ public class CbrRecommendationService {
         return movieCases;
     }
 
+    private static <T> T shared(Map<T, T> recnik, T vrednost) {
+        return recnik.computeIfAbsent(vrednost, Function.identity());
+    }
+
     public List<MovieRecommendation> findSimilarMovies(String selectedMovieId) {
+        return findSimilarMovies(selectedMovieId, BROJ_PREPORUKA);
+    }
+
+    /**
+     * Do {@code k} filmova najsličnijih zadatom, bez njega samog, od
+     * najsličnijeg; filmovi jednake sličnosti ostaju redom iz baze slučajeva.
+     */
+    public List<MovieRecommendation> findSimilarMovies(String selectedMovieId, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Broj preporuka ne može biti negativan: " + k);
+        }
         try {
-            CBRCase queryCase = findCaseById(selectedMovieId);
-            if (queryCase == null) {
-                throw new IllegalArgumentException("Film sa ID " + selectedMovieId + " nije pronađen.");
+            CaseBaseSnapshot stanje = snapshot;
+            CbrNeighborGraph graph = stanje.neighborGraph;
+            if (graph != null && k <= graph.getNeighbourCount()) {
+                return findSimilarInGraph(graph, indexOf(graph.getCaseBase(), selectedMovieId), k);
+            }
+
+            ColumnarCaseBase baza = stanje.caseBase;
+            List<CBRCase> jcolibriCases = stanje.cases;
+            int queryIndex = indexOf(baza, selectedMovieId);
+            if (k == 0) {
+                return new ArrayList<>();
+            }
+
+            if (jcolibriCases == null) {
+                return findSimilarColumnar(baza, stanje.blockingIndex, queryIndex, k);
             }
             
             CBRQuery cbrQuery = new CBRQuery();
-            cbrQuery.setDescription(queryCase.getDescription());
+            cbrQuery.setDescription(baza.get(queryIndex));
             
             Collection<RetrievalResult> retrievalResults =
-                NNScoringMethod.evaluateSimilarity(cases, cbrQuery, simConfig);
+                NNScoringMethod.evaluateSimilarity(jcolibriCases, cbrQuery, stanje.simConfig);
             
-            Collection<CBRCase> topCases = SelectCases.selectTopK(retrievalResults, 6); 
+            // Jedan više, jer je upitni film najčešće među najsličnijima
+            Collection<RetrievalResult> topResults = SelectCases.selectTopKRR(retrievalResults, k + 1);
             
             List<MovieRecommendation> recommendations = new ArrayList<>();
             
-            for (RetrievalResult result : retrievalResults) {
-                CBRCase resultCase = result.get_case();
+            for (RetrievalResult result : topResults) {
+                if (recommendations.size() >= k) break;
+
+                MovieCase movieCase = (MovieCase) result.get_case().getDescription();
                 
-                if (topCases.contains(resultCase)) {
-                    MovieCase movieCase = (MovieCase) resultCase.getDescription();
-                    
-                    if (!movieCase.getId().equals(selectedMovieId)) {
-                        double similarity = result.getEval();
-                        MovieRecommendation recommendation = new MovieRecommendation(movieCase, similarity);
-                        recommendations.add(recommendation);
-                    }
-                    
-                    if (recommendations.size() >= 5) break;
+                if (!movieCase.getId().equals(selectedMovieId)) {
+                    recommendations.add(new MovieRecommendation(movieCase, result.getEval()));
                 }
             }
             
@@ -177,61 +365,91 @@ public class CbrRecommendationService {
         }
     }
 
-    public List<MovieCase> getAllMovies() {
-        List<MovieCase> allMovies = new ArrayList<>();
-        
-        for (CBRCase cbrCase : cases) {
-            MovieCase movieCase = (MovieCase) cbrCase.getDescription();
-            allMovies.add(movieCase);
+    private static int indexOf(ColumnarCaseBase baza, String id) {
+        int index = baza.indexOf(id);
+        if (index < 0) {
+            throw new IllegalArgumentException("Film sa ID " + id + " nije pronađen.");
         }
-        
-        return allMovies;
+        return index;
     }
-    
-    private CBRCase findCaseById(String movieId) {
-        for (CBRCase cbrCase : cases) {
-            MovieCase movieCase = (MovieCase) cbrCase.getDescription();
-            if (movieCase.getId().equals(movieId)) {
-                return cbrCase;
-            }
+
+    /**
+     * Upitni film se preskače već pri ocenjivanju, a od ostalih se čuva samo
+     * {@code k} najsličnijih, pa memorija ne zavisi od veličine kataloga. Sa
+     * indeksom se ocenjuju samo slučajevi koji još mogu ući među njih.
+     */
+    private static List<MovieRecommendation> findSimilarColumnar(ColumnarCaseBase baza, CaseBlockingIndex index,
+                                                                 int queryIndex, int k) {
+        TopKHeap heap = new TopKHeap(k);
+        if (index != null) {
+            index.topK(queryIndex, heap);
+        } else {
+            baza.topK(queryIndex, heap);
         }
-        return null;
+
+        double[] similarities = new double[heap.size()];
+        int[] najbolji = heap.drainSorted(similarities);
+        return recommendations(baza, najbolji, similarities, najbolji.length);
     }
-    
-    private String getCleanValue(QuerySolution solution, String varName) {
-        if (solution.get(varName) != null) {
-            String value = solution.get(varName).toString();
-            if (value.contains("^^")) {
-                value = value.substring(0, value.indexOf("^^"));
-            }
-            if (value.startsWith("\"") && value.endsWith("\"")) {
-                value = value.substring(1, value.length() - 1);
-            }
-            return value;
-        }
-        return "N/A";
+
+    /** Prvih {@code k} suseda iz grafa, bez ocenjivanja. */
+    private static List<MovieRecommendation> findSimilarInGraph(CbrNeighborGraph graph, int queryIndex, int k) {
+        int[] najbolji = new int[k];
+        double[] similarities = new double[k];
+        int broj = graph.neighbors(queryIndex, najbolji, similarities);
+        return recommendations(graph.getCaseBase(), najbolji, similarities, broj);
     }
-    
-    private Integer parseYear(String yearString) {
-        try {
-            return Integer.parseInt(yearString);
-        } catch (NumberFormatException e) {
-            return 0;
+
+    private static List<MovieRecommendation> recommendations(ColumnarCaseBase baza, int[] indeksi,
+                                                             double[] similarities, int broj) {
+        List<MovieRecommendation> recommendations = new ArrayList<>(broj);
+        for (int i = 0; i < broj; i++) {
+            recommendations.add(new MovieRecommendation(baza.get(indeksi[i]), similarities[i]));
         }
+        return recommendations;
     }
 
-    private String buildDirectorName(QuerySolution solution) {
-        String ime = getCleanValue(solution, "reziserIme");
-        String prezime = getCleanValue(solution, "reziserPrezime");
-        
-        if (!"N/A".equals(ime) && !"N/A".equals(prezime)) {
-            return ime + " " + prezime;
-        } else if (!"N/A".equals(ime)) {
-            return ime;
-        } else if (!"N/A".equals(prezime)) {
-            return prezime;
-        }
-        return "N/A";
+    /**
+     * Pronalazi filmove po delu naslova ili izvornog naslova, bez obzira na
+     * velika slova, kvačice i pismo.
+     */
+    public List<MovieCase> searchByTitle(String upit, int limit) {
+        return snapshot.titleIndex.search(upit, limit);
+    }
+
+    // Za proveru dopune grafa u testovima
+    CbrNeighborGraph getNeighborGraph() {
+        return snapshot.neighborGraph;
+    }
+
+    public List<MovieCase> getAllMovies() {
+        return new ArrayList<>(snapshot.caseBase.asList());
+    }
+
+    /**
+     * Baza slučajeva i sve što je iz nje izvedeno pri jednom učitavanju
+     * kataloga. Ne menja se posle objavljivanja.
+     */
+    private static final class CaseBaseSnapshot {
+        final NNConfig simConfig;
+        final ColumnarCaseBase caseBase;
+        // jCOLIBRI slučajevi istim redom kao caseBase, samo ako je kolonsko ocenjivanje isključeno
+        final List<CBRCase> cases;
+        // Samo uz kolonsko ocenjivanje, ako nije isključen
+        final CaseBlockingIndex blockingIndex;
+        final CbrNeighborGraph neighborGraph;
+        final TitleIndex<MovieCase> titleIndex;
+
+        CaseBaseSnapshot(NNConfig simConfig, ColumnarCaseBase caseBase, List<CBRCase> cases,
+                         CaseBlockingIndex blockingIndex, CbrNeighborGraph neighborGraph,
+                         TitleIndex<MovieCase> titleIndex) {
+            this.simConfig = simConfig;
+            this.caseBase = caseBase;
+            this.cases = cases;
+            this.blockingIndex = blockingIndex;
+            this.neighborGraph = neighborGraph;
+            this.titleIndex = titleIndex;
+        }
     }
     
     public static class MovieRecommendation {
@@ -0,0 +1,127 @@
+/**
+ * COG defuzzifikacija nad izlaznim termima generisanog
+ * {@link FilmKvalitetEvaluator}-a: termi se odsecaju aktivacijom (MIN),
+ * spajaju sa MAX i iz dobijene funkcije se računa težište.
+ * <p>
+ * Vektorska verzija ({@code VectorCogDefuzzifier}) koristi
+ * {@code jdk.incubator.vector}, pa je u {@code src/vector/java} i prevodi se
+ * samo u {@code benchmark} profilu. Postoji samo ako je prevedena i JVM je
+ * pokrenut sa {@code --add-modules jdk.incubator.vector}; inače se koristi
+ * skalarna.
+ * Vektorska sabira drugim redosledom, pa se od skalarne razlikuje u
+ * poslednjim bitovima.
+ */
+public abstract class CogDefuzzifier {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    protected final int points;
+    protected final double[] x;
+    protected final double[][] terms;
+    // Opseg tačaka u kojima je term veći od nule: [termFrom, termTo)
+    private final int[] termFrom;
+    private final int[] termTo;
+
+    /**
+     * @param lanes nizovi se dopunjuju nulama do umnoška ovog broja, da bi
+     *              vektorska petlja mogla da ide do kraja bez ostatka
+     */
+    protected CogDefuzzifier(int lanes) {
+        double[] cogPoints = FilmKvalitetEvaluator.cogPoints();
+        double[][] outputTerms = FilmKvalitetEvaluator.outputTerms();
+        this.points = cogPoints.length;
+        int padded = (points + lanes - 1) / lanes * lanes;
+
+        this.x = new double[padded];
+        System.arraycopy(cogPoints, 0, x, 0, points);
+        this.terms = new double[outputTerms.length][padded];
+        this.termFrom = new int[outputTerms.length];
+        this.termTo = new int[outputTerms.length];
+        for (int t = 0; t < outputTerms.length; t++) {
+            System.arraycopy(outputTerms[t], 0, terms[t], 0, points);
+            int from = 0;
+            while (from < points && terms[t][from] <= 0.0) {
+                from++;
+            }
+            int to = points;
+            while (to > from && terms[t][to - 1] <= 0.0) {
+                to--;
+            }
+            termFrom[t] = from;
+            termTo[t] = to;
+        }
+    }
+
+    public static CogDefuzzifier scalar() {
+        return new Scalar();
+    }
+
+    /**
+     * Vektorska defuzzifikacija, ili {@code null} ako Vector API nije dostupan
+     * ili vektorska verzija nije prevedena.
+     */
+    public static CogDefuzzifier vector() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            // Klasa se učitava tek ovde, pa bez modula nema NoClassDefFoundError
+            return (CogDefuzzifier) Class.forName("VectorCogDefuzzifier").getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Greška pri učitavanju vektorske defuzzifikacije: " + e.getMessage());
+        }
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    /**
+     * Ocena za aktivacije izlaznih terma iz {@link FilmKvalitetEvaluator#activations}.
+     */
+    public double defuzzify(double[] activations) {
+        int from = points;
+        int to = 0;
+        for (int t = 0; t < terms.length; t++) {
+            if (activations[t] > 0.0) {
+                from = Math.min(from, termFrom[t]);
+                to = Math.max(to, termTo[t]);
+            }
+        }
+        return from < to ? centroid(activations, from, to) : FilmKvalitetEvaluator.defuzzify(0.0, 0.0);
+    }
+
+    /** Težište agregirane funkcije na tačkama [from, to), van kojih je ona nula. */
+    protected abstract double centroid(double[] activations, int from, int to);
+
+    public abstract boolean isVectorized();
+
+    private static class Scalar extends CogDefuzzifier {
+
+        Scalar() {
+            super(1);
+        }
+
+        @Override
+        protected double centroid(double[] activations, int from, int to) {
+            double sum = 0.0;
+            double weightedSum = 0.0;
+            for (int i = from; i < to; i++) {
+                double mu = 0.0;
+                for (int t = 0; t < terms.length; t++) {
+                    mu = Math.max(mu, Math.min(activations[t], terms[t][i]));
+                }
+                sum += mu;
+                weightedSum += x[i] * mu;
+            }
+            return FilmKvalitetEvaluator.defuzzify(sum, weightedSum);
+        }
+
+        @Override
+        public boolean isVectorized() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+import ucm.gaia.jcolibri.cbrcore.Attribute;
+import ucm.gaia.jcolibri.method.retrieve.NNretrieval.NNConfig;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Baza slučajeva za CBR u kolonama primitivnih nizova: naslov i režiser su
+ * kodovi iz rečnika (isti string, isti kod), žanrovi su skup bitova po
+ * slučaju, a godina je {@code int}. Sličnost se računa u jednoj petlji bez
+ * refleksije i bez objekta po slučaju, a sličnost žanrova je par
+ * {@code popcount}-a nad rečima bitova. Rečnici služe samo pri pravljenju;
+ * posle se čuvaju samo kodovi.
+ * <p>
+ * Rezultat je bit za bit isti kao {@code NNScoringMethod} sa
+ * {@code Average} i {@code Equal}/{@link GenreJaccard}/{@code Interval}
+ * funkcijama: lokalne sličnosti se množe težinama i sabiraju redom kojim su
+ * polja deklarisana u {@link MovieCase} (naslov, žanrovi, godina, režiser),
+ * kao što ih jCOLIBRI obilazi, i dele zbirom težina. {@code Equal} daje 0
+ * ako nedostaje bilo koja vrednost, pa nepoznata vrednost dobija kod -1 koji
+ * se ni sa čim ne poklapa.
+ * <p>
+ * Film se po ID-ju nalazi preko hash tabele sa otvorenim adresiranjem nad
+ * indeksima slučajeva, bez objekta po unosu.
+ */
+public class ColumnarCaseBase {
+
+    private static final int NEPOZNATO = -1;
+    private static final int NEPOZNATA_GODINA = Integer.MIN_VALUE;
+    private static final int PRAZNO = -1;
+    // Menja se sa formulom sličnosti, da sačuvani rezultati ne bi važili za novu
+    private static final byte VERZIJA_SLICNOSTI = 2;
+
+    private final MovieCase[] cases;
+    private final int[] naslov;
+    // Slučaj i ima zanrReci uzastopnih reči od i * zanrReci; bit z je žanr sa kodom z
+    private final long[] zanrovi;
+    private final int zanrReci;
+    private final int[] godina;
+    private final int[] reziser;
+    // Indeksi slučajeva po hash-u ID-ja, popunjeno najviše do polovine
+    private final int[] idTable;
+
+    private final double naslovTezina;
+    private final double zanrTezina;
+    private final double godinaTezina;
+    private final double reziserTezina;
+    private final double zbirTezina;
+    private final double godinaInterval;
+
+    /**
+     * @param config         težine se čitaju iz iste konfiguracije koju koristi jCOLIBRI
+     * @param godinaInterval interval {@code Interval} funkcije za godinu
+     */
+    public ColumnarCaseBase(List<MovieCase> movieCases, NNConfig config, double godinaInterval) {
+        int n = movieCases.size();
+        this.cases = movieCases.toArray(new MovieCase[0]);
+        this.naslov = new int[n];
+        this.godina = new int[n];
+        this.reziser = new int[n];
+        Map<String, Integer> naslovi = new HashMap<>();
+        Map<String, Integer> reziseri = new HashMap<>();
+        Map<String, Integer> recnikZanrova = new HashMap<>();
+        int[][] kodoviZanrova = new int[n][];
+        for (int i = 0; i < n; i++) {
+            MovieCase movieCase = cases[i];
+            naslov[i] = encode(naslovi, movieCase.getNaslov());
+            kodoviZanrova[i] = encodeGenres(recnikZanrova, movieCase.getSviZanrovi());
+            godina[i] = movieCase.getGodina() != null ? movieCase.getGodina() : NEPOZNATA_GODINA;
+            reziser[i] = encode(reziseri, movieCase.getReziser());
+        }
+
+        this.zanrReci = Math.max(1, (recnikZanrova.size() + Long.SIZE - 1) / Long.SIZE);
+        this.zanrovi = new long[n * zanrReci];
+        for (int i = 0; i < n; i++) {
+            for (int z : kodoviZanrova[i]) {
+                zanrovi[i * zanrReci + (z >>> 6)] |= 1L << z;
+            }
+        }
+
+        this.idTable = new int[Integer.highestOneBit(Math.max(1, n)) << 2];
+        Arrays.fill(idTable, PRAZNO);
+        for (int i = 0; i < n; i++) {
+            int slot = slot(cases[i].getId());
+            // Kod ponovljenog ID-ja važi prvi slučaj
+            if (idTable[slot] == PRAZNO) {
+                idTable[slot] = i;
+            }
+        }
+
+        this.naslovTezina = weight(config, "naslov");
+        this.zanrTezina = weight(config, "sviZanrovi");
+        this.godinaTezina = weight(config, "godina");
+        this.reziserTezina = weight(config, "reziser");
+        // Istim redom kao u Average
+        double zbir = 0.0;
+        zbir += naslovTezina;
+        zbir += zanrTezina;
+        zbir += godinaTezina;
+        zbir += reziserTezina;
+        this.zbirTezina = zbir;
+        this.godinaInterval = godinaInterval;
+    }
+
+    private static double weight(NNConfig config, String attribute) {
+        return config.getWeight(new Attribute(attribute, MovieCase.class));
+    }
+
+    private static int encode(Map<String, Integer> recnik, String vrednost) {
+        if (vrednost == null) {
+            return NEPOZNATO;
+        }
+        return recnik.computeIfAbsent(vrednost, k -> recnik.size());
+    }
+
+    private static int[] encodeGenres(Map<String, Integer> recnik, String vrednost) {
+        if (vrednost == null) {
+            return new int[0];
+        }
+        return GenreJaccard.genres(vrednost).stream().mapToInt(zanr -> encode(recnik, zanr)).toArray();
+    }
+
+    // Mesto sa datim ID-jem ili prvo slobodno iza njegovog hash-a (linearno probanje)
+    private int slot(String id) {
+        int mask = idTable.length - 1;
+        int h = id.hashCode();
+        int i = (h ^ (h >>> 16)) & mask;
+        while (idTable[i] != PRAZNO && !cases[idTable[i]].getId().equals(id)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    // Kolone za CaseBlockingIndex; nepoznata vrednost je -1, a godina Integer.MIN_VALUE
+
+    int titleCode(int i) {
+        return naslov[i];
+    }
+
+    /** Kodovi žanrova slučaja, rastuće. */
+    int[] genreCodes(int i) {
+        int[] kodovi = new int[genreCount(i)];
+        int k = 0;
+        for (int w = 0; w < zanrReci; w++) {
+            long bitovi = zanrovi[i * zanrReci + w];
+            while (bitovi != 0) {
+                kodovi[k++] = w * Long.SIZE + Long.numberOfTrailingZeros(bitovi);
+                bitovi &= bitovi - 1;
+            }
+        }
+        return kodovi;
+    }
+
+    private int genreCount(int i) {
+        int broj = 0;
+        for (int w = 0; w < zanrReci; w++) {
+            broj += Long.bitCount(zanrovi[i * zanrReci + w]);
+        }
+        return broj;
+    }
+
+    /** Da li slučajevi imaju zajednički žanr sa kodom manjim od {@code doKoda}. */
+    boolean sharesGenre(int a, int b, int doKoda) {
+        for (int w = 0; w < zanrReci && w * Long.SIZE < doKoda; w++) {
+            long zajednicki = zanrovi[a * zanrReci + w] & zanrovi[b * zanrReci + w];
+            int bitova = doKoda - w * Long.SIZE;
+            if (bitova < Long.SIZE) {
+                zajednicki &= (1L << bitova) - 1;
+            }
+            if (zajednicki != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int directorCode(int i) {
+        return reziser[i];
+    }
+
+    int year(int i) {
+        return godina[i];
+    }
+
+    /**
+     * Da li su težine i interval takvi da veća lokalna sličnost ne smanjuje
+     * globalnu, što granice u {@link CaseBlockingIndex} pretpostavljaju.
+     */
+    boolean hasMonotoneWeights() {
+        return naslovTezina >= 0 && zanrTezina >= 0 && godinaTezina >= 0 && reziserTezina >= 0
+            && zbirTezina > 0 && godinaInterval > 0;
+    }
+
+    public int size() {
+        return cases.length;
+    }
+
+    public MovieCase get(int i) {
+        return cases[i];
+    }
+
+    /** Indeks filma sa datim ID-jem, ili -1. */
+    public int indexOf(String id) {
+        return idTable[slot(id)];
+    }
+
+    /** Svi slučajevi redom kao u bazi, samo za čitanje. */
+    public List<MovieCase> asList() {
+        return Collections.unmodifiableList(Arrays.asList(cases));
+    }
+
+    /**
+     * Nudi sličnost slučaja {@code queryIndex} sa svim ostalim slučajevima u
+     * {@code heap}, pa u njemu ostaje samo {@link TopKHeap#capacity()}
+     * najsličnijih, bez niza ocena za ceo katalog.
+     */
+    public void topK(int queryIndex, TopKHeap heap) {
+        for (int i = 0; i < cases.length; i++) {
+            if (i != queryIndex) {
+                heap.offer(i, similarity(queryIndex, i));
+            }
+        }
+    }
+
+    /**
+     * Sličnost slučaja {@code i} sa upitnim slučajem {@code queryIndex}. Sve
+     * lokalne sličnosti su simetrične, pa je i ova.
+     */
+    public double similarity(int queryIndex, int i) {
+        int qNaslov = naslov[queryIndex];
+        int qReziser = reziser[queryIndex];
+
+        double simNaslov = qNaslov != NEPOZNATO && naslov[i] == qNaslov ? 1.0 : 0.0;
+        double simZanr = genreSimilarity(queryIndex, i);
+        double simGodina = yearSimilarity(godina[queryIndex], godina[i]);
+        double simReziser = qReziser != NEPOZNATO && reziser[i] == qReziser ? 1.0 : 0.0;
+        return combine(simNaslov, simZanr, simGodina, simReziser);
+    }
+
+    /** Jaccard skupova žanrova, kao {@link GenreJaccard}, iz dva popcount-a po reči. */
+    private double genreSimilarity(int a, int b) {
+        int presek = 0;
+        int unija = 0;
+        for (int w = 0; w < zanrReci; w++) {
+            long x = zanrovi[a * zanrReci + w];
+            long y = zanrovi[b * zanrReci + w];
+            presek += Long.bitCount(x & y);
+            unija += Long.bitCount(x | y);
+        }
+        return GenreJaccard.similarity(presek, unija);
+    }
+
+    /** Lokalna sličnost godina; 0 ako bilo koja nedostaje. */
+    double yearSimilarity(int qGodina, int g) {
+        return qGodina != NEPOZNATA_GODINA && g != NEPOZNATA_GODINA
+            ? 1.0 - Math.abs((double) qGodina - g) / godinaInterval
+            : 0.0;
+    }
+
+    /**
+     * Globalna sličnost iz lokalnih. Sabiranje i množenje su monotoni i u
+     * pokretnom zarezu, pa veće lokalne sličnosti nikad ne daju manji
+     * rezultat; na tome počivaju granice u {@link CaseBlockingIndex}.
+     */
+    double combine(double simNaslov, double simZanr, double simGodina, double simReziser) {
+        double zbir = 0.0;
+        zbir += simNaslov * naslovTezina;
+        zbir += simZanr * zanrTezina;
+        zbir += simGodina * godinaTezina;
+        zbir += simReziser * reziserTezina;
+        return zbir / zbirTezina;
+    }
+
+    /**
+     * SHA-256 otisak težina i prvih {@code n} slučajeva. Isti otisak znači
+     * iste ocene među tim slučajevima, pa se rezultati sačuvani za jednu
+     * bazu mogu koristiti u drugoj koja je počinje istim filmovima.
+     */
+    public byte[] fingerprint(int n) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(VERZIJA_SLICNOSTI);
+            ByteBuffer brojevi = ByteBuffer.allocate(5 * Double.BYTES);
+            brojevi.putDouble(naslovTezina).putDouble(zanrTezina).putDouble(godinaTezina)
+                   .putDouble(reziserTezina).putDouble(godinaInterval);
+            digest.update(brojevi.array());
+            ByteBuffer godinaBajtovi = ByteBuffer.allocate(Integer.BYTES);
+            for (int i = 0; i < n; i++) {
+                MovieCase movieCase = cases[i];
+                update(digest, movieCase.getId());
+                update(digest, movieCase.getNaslov());
+                update(digest, movieCase.getSviZanrovi());
+                update(digest, movieCase.getReziser());
+                digest.update(godinaBajtovi.putInt(0, godina[i]).array());
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 nije dostupan: " + e.getMessage());
+        }
+    }
+
+    // Vrednost i separator 0; bajt 0xFF, koji se ne javlja u UTF-8, označava nepoznatu vrednost
+    private static void update(MessageDigest digest, String vrednost) {
+        if (vrednost == null) {
+            digest.update((byte) 0xFF);
+        } else {
+            digest.update(vrednost.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+}
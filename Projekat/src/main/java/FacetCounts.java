@@ -0,0 +1,76 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broj pogodaka po vrednosti jedne fasete, u primitivnom nizu po
+ * identifikatoru vrednosti. Najčešće vrednosti se biraju kroz
+ * {@link TopKHeap}, pa prikaz prvih nekoliko ne sortira sve vrednosti.
+ * Jednako česte vrednosti idu abecednim redom, po redosledu oznaka
+ * izračunatom jednom pri izgradnji indeksa.
+ */
+public class FacetCounts {
+
+    private final List<String> labels;
+    private final int[] rankById;
+    private final int[] idByRank;
+    private final int[] counts;
+    private final int present;
+
+    /**
+     * @param labels   oznaka svake vrednosti po identifikatoru
+     * @param rankById abecedni redni broj svake vrednosti
+     * @param idByRank identifikator vrednosti po abecednom rednom broju
+     * @param counts   broj pogodaka po identifikatoru
+     */
+    FacetCounts(List<String> labels, int[] rankById, int[] idByRank, int[] counts) {
+        this.labels = labels;
+        this.rankById = rankById;
+        this.idByRank = idByRank;
+        this.counts = counts;
+        int prisutne = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                prisutne++;
+            }
+        }
+        this.present = prisutne;
+    }
+
+    /** Broj vrednosti sa bar jednim pogotkom. */
+    public int size() {
+        return present;
+    }
+
+    /**
+     * Najviše {@code n} vrednosti sa najviše pogodaka, opadajuće po broju.
+     */
+    public Map<String, Integer> top(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Broj vrednosti ne može biti negativan: " + n);
+        }
+        if (n == 0 || present == 0) {
+            return Collections.emptyMap();
+        }
+        TopKHeap heap = new TopKHeap(Math.min(n, present));
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] > 0) {
+                heap.offer(rankById[id], counts[id]);
+            }
+        }
+        double[] brojevi = new double[heap.size()];
+        int[] rangovi = heap.drainSorted(brojevi);
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < rangovi.length; i++) {
+            result.put(labels.get(idByRank[rangovi[i]]), (int) brojevi[i]);
+        }
+        return result;
+    }
+
+    /** Sve vrednosti sa bar jednim pogotkom, opadajuće po broju. */
+    public Map<String, Integer> all() {
+        return top(present);
+    }
+}
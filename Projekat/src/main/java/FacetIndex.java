@@ -0,0 +1,257 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Kolonski indeks za fasetnu pretragu. Svaki film dobija redni broj, pa su
+ * numerički atributi (godina, trajanje, budžet, zarada) obični {@code long[]}
+ * nizovi, a svaka faseta ima rečnik vrednosti sa sortiranim listama rednih
+ * brojeva filmova (za filtriranje) i CSR nizove film -> vrednosti (za
+ * brojanje faseta). Upit se svodi na operacije nad {@link BitSet}-om i
+ * sekvencijalni prolaz kroz kolone, bez SPARQL upita. Redni brojevi i
+ * redovi rezultata su iz {@link FilmRows}, zajedničkih sa indeksom žanrova.
+ */
+public class FacetIndex {
+
+    private final FilmRows rows;
+    private final long[][] columns;
+    private final Map<FacetQuery.Facet, FacetColumn> facets;
+
+    private FacetIndex(Builder builder) {
+        int filmCount = builder.rows.size();
+        this.rows = builder.rows;
+        this.columns = new long[FacetQuery.Range.values().length][];
+        for (FacetQuery.Range range : FacetQuery.Range.values()) {
+            long[] column = new long[filmCount];
+            Arrays.fill(column, RdfValues.NEPOZNATO);
+            for (Map.Entry<Integer, Long> entry : builder.numbers.get(range).entrySet()) {
+                column[entry.getKey()] = entry.getValue();
+            }
+            columns[range.ordinal()] = column;
+        }
+        this.facets = new EnumMap<>(FacetQuery.Facet.class);
+        for (FacetQuery.Facet facet : FacetQuery.Facet.values()) {
+            facets.put(facet, new FacetColumn(builder.values.get(facet), filmCount));
+        }
+    }
+
+    public static String normalizeValue(String value) {
+        // Isto poređenje kao i kod pretrage po žanru
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public FacetSearchResult search(FacetQuery query, long offset, long limit) {
+        return match(query).page(offset, limit);
+    }
+
+    /**
+     * Filmovi koji zadovoljavaju upit i broj pogodaka po fasetama, izračunati
+     * jednom; strane se zatim čitaju iz vraćenog {@link Hits}-a.
+     */
+    public Hits match(FacetQuery query) {
+        int filmCount = rows.size();
+        BitSet hits = null;
+
+        for (FacetQuery.Facet facet : FacetQuery.Facet.values()) {
+            List<String> selected = query.getValues(facet);
+            if (selected.isEmpty()) {
+                continue;
+            }
+            BitSet matching = facets.get(facet).filmsWithAny(selected, filmCount);
+            if (hits == null) {
+                hits = matching;
+            } else {
+                hits.and(matching);
+            }
+        }
+        if (hits == null) {
+            hits = new BitSet(filmCount);
+            hits.set(0, filmCount);
+        }
+
+        for (FacetQuery.Range range : FacetQuery.Range.values()) {
+            if (query.hasRange(range)) {
+                filterRange(hits, columns[range.ordinal()], query.getMin(range), query.getMax(range));
+            }
+        }
+
+        Map<FacetQuery.Facet, FacetCounts> counts = new EnumMap<>(FacetQuery.Facet.class);
+        for (FacetQuery.Facet facet : FacetQuery.Facet.values()) {
+            counts.put(facet, facets.get(facet).count(hits));
+        }
+        return new Hits(rows, hits, counts);
+    }
+
+    private static void filterRange(BitSet hits, long[] column, long min, long max) {
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            long value = column[i];
+            if (value == RdfValues.NEPOZNATO || value < min || value > max) {
+                hits.clear(i);
+            }
+        }
+    }
+
+    public int getFilmCount() {
+        return rows.size();
+    }
+
+    /**
+     * Pogoci jednog upita. Ne menjaju se posle izračunavanja i čuvaju redove
+     * indeksa nad kojim su izračunati, pa se mogu keširati i čitati po
+     * stranama i kad se indeks u međuvremenu zameni novim.
+     */
+    public static final class Hits {
+        private final FilmRows rows;
+        private final BitSet films;
+        private final int ukupno;
+        private final Map<FacetQuery.Facet, FacetCounts> counts;
+
+        private Hits(FilmRows rows, BitSet films, Map<FacetQuery.Facet, FacetCounts> counts) {
+            this.rows = rows;
+            this.films = films;
+            this.ukupno = films.cardinality();
+            this.counts = counts;
+        }
+
+        public int getUkupno() {
+            return ukupno;
+        }
+
+        /** Redovi rezultata redom rednih brojeva filmova, lenjo. */
+        public Stream<FilmResult> stream() {
+            return films.stream()
+                        .mapToObj(rows::getRows)
+                        .flatMap(List::stream);
+        }
+
+        public FacetSearchResult page(long offset, long limit) {
+            List<FilmResult> page = stream().skip(offset)
+                                            .limit(limit)
+                                            .collect(Collectors.toList());
+            return new FacetSearchResult(page, ukupno, counts);
+        }
+    }
+
+    private static class FacetColumn {
+        private final List<String> labels = new ArrayList<>();
+        private final Map<String, Integer> idsByKey = new HashMap<>();
+        private final int[][] postings;
+        private final int[] valueStart;
+        private final int[] valueIds;
+        // Abecedni redosled oznaka, za poredak jednako čestih vrednosti
+        private final int[] rankById;
+        private final int[] idByRank;
+
+        FacetColumn(Map<Integer, List<String>> valuesByFilm, int filmCount) {
+            Map<Integer, List<Integer>> films = new HashMap<>();
+            this.valueStart = new int[filmCount + 1];
+            List<Integer> ids = new ArrayList<>();
+
+            for (int ordinal = 0; ordinal < filmCount; ordinal++) {
+                valueStart[ordinal] = ids.size();
+                for (String label : valuesByFilm.getOrDefault(ordinal, Collections.emptyList())) {
+                    Integer id = idsByKey.get(normalizeValue(label));
+                    if (id == null) {
+                        id = labels.size();
+                        labels.add(label);
+                        idsByKey.put(normalizeValue(label), id);
+                    }
+                    if (!ids.subList(valueStart[ordinal], ids.size()).contains(id)) {
+                        ids.add(id);
+                        films.computeIfAbsent(id, k -> new ArrayList<>()).add(ordinal);
+                    }
+                }
+            }
+            valueStart[filmCount] = ids.size();
+            this.valueIds = ids.stream().mapToInt(Integer::intValue).toArray();
+
+            this.postings = new int[labels.size()][];
+            for (int id = 0; id < labels.size(); id++) {
+                postings[id] = films.get(id).stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            this.idByRank = IntStream.range(0, labels.size())
+                                     .boxed()
+                                     .sorted(Comparator.comparing(labels::get))
+                                     .mapToInt(Integer::intValue)
+                                     .toArray();
+            this.rankById = new int[idByRank.length];
+            for (int rank = 0; rank < idByRank.length; rank++) {
+                rankById[idByRank[rank]] = rank;
+            }
+        }
+
+        BitSet filmsWithAny(List<String> selected, int filmCount) {
+            BitSet matching = new BitSet(filmCount);
+            for (String value : selected) {
+                Integer id = idsByKey.get(normalizeValue(value));
+                if (id != null) {
+                    for (int ordinal : postings[id]) {
+                        matching.set(ordinal);
+                    }
+                }
+            }
+            return matching;
+        }
+
+        FacetCounts count(BitSet hits) {
+            int[] counts = new int[labels.size()];
+            for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+                for (int k = valueStart[i]; k < valueStart[i + 1]; k++) {
+                    counts[valueIds[k]]++;
+                }
+            }
+            return new FacetCounts(labels, rankById, idByRank, counts);
+        }
+    }
+
+    public static class Builder {
+        private final FilmRows rows;
+        private final Map<FacetQuery.Facet, Map<Integer, List<String>>> values = new EnumMap<>(FacetQuery.Facet.class);
+        private final Map<FacetQuery.Range, Map<Integer, Long>> numbers = new EnumMap<>(FacetQuery.Range.class);
+
+        /**
+         * Redovi određuju skup filmova u indeksu; vrednosti faseta i brojeva
+         * za filmove bez reda se zanemaruju.
+         */
+        public Builder(FilmRows rows) {
+            this.rows = rows;
+            for (FacetQuery.Facet facet : FacetQuery.Facet.values()) {
+                values.put(facet, new HashMap<>());
+            }
+            for (FacetQuery.Range range : FacetQuery.Range.values()) {
+                numbers.put(range, new HashMap<>());
+            }
+        }
+
+        public Builder addValue(String filmId, FacetQuery.Facet facet, String label) {
+            int ordinal = rows.ordinalOf(filmId);
+            if (ordinal >= 0 && !RdfValues.NEMA_VREDNOSTI.equals(label)) {
+                values.get(facet).computeIfAbsent(ordinal, k -> new ArrayList<>()).add(label);
+            }
+            return this;
+        }
+
+        public Builder setNumber(String filmId, FacetQuery.Range range, long value) {
+            int ordinal = rows.ordinalOf(filmId);
+            if (ordinal >= 0 && value != RdfValues.NEPOZNATO) {
+                numbers.get(range).putIfAbsent(ordinal, value);
+            }
+            return this;
+        }
+
+        public FacetIndex build() {
+            return new FacetIndex(this);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Kombinovani upit za fasetnu pretragu. Vrednosti unutar jedne fasete se
+ * spajaju sa ILI, a različite fasete i opsezi sa I. Granice opsega su
+ * uključive; film bez vrednosti za neki atribut ne prolazi opseg nad njim.
+ * <p>
+ * Dva upita su jednaka ako biraju iste filmove po istim pravilima: redosled
+ * i veličina slova vrednosti se ne računaju, pa se upit može koristiti kao
+ * ključ keša.
+ */
+public class FacetQuery {
+
+    public enum Facet {
+        ZANR("imaZanr", "Žanr"),
+        REZISER("rezirao", "Režiser"),
+        GLUMAC("glumi", "Glumac"),
+        STUDIO("proizvedenoUStudiju", "Studio"),
+        JEZIK("izvorniJezik", "Jezik"),
+        ZEMLJA("zemljaPorijekla", "Zemlja porijekla");
+
+        private final String property;
+        private final String label;
+
+        Facet(String property, String label) {
+            this.property = property;
+            this.label = label;
+        }
+
+        public String getProperty() { return property; }
+        public String getLabel() { return label; }
+    }
+
+    public enum Range {
+        GODINA("godinaIzdanja", "Godina"),
+        TRAJANJE("trajanjeMinuta", "Trajanje (min)"),
+        BUDZET("budzetUSD", "Budžet (USD)"),
+        ZARADA("zaradaUSD", "Zarada (USD)");
+
+        private final String property;
+        private final String label;
+
+        Range(String property, String label) {
+            this.property = property;
+            this.label = label;
+        }
+
+        public String getProperty() { return property; }
+        public String getLabel() { return label; }
+    }
+
+    private final Map<Facet, List<String>> values;
+    private final Map<Range, long[]> ranges;
+    private final Map<Facet, Set<String>> keys;
+
+    private FacetQuery(Builder builder) {
+        this.values = builder.values;
+        this.ranges = builder.ranges;
+        this.keys = new EnumMap<>(Facet.class);
+        values.forEach((facet, selected) -> {
+            Set<String> normalized = new TreeSet<>();
+            for (String value : selected) {
+                normalized.add(FacetIndex.normalizeValue(value));
+            }
+            keys.put(facet, normalized);
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<String> getValues(Facet facet) {
+        return values.getOrDefault(facet, Collections.emptyList());
+    }
+
+    public boolean hasRange(Range range) {
+        return ranges.containsKey(range);
+    }
+
+    public long getMin(Range range) {
+        return ranges.get(range)[0];
+    }
+
+    public long getMax(Range range) {
+        return ranges.get(range)[1];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FacetQuery)) {
+            return false;
+        }
+        FacetQuery other = (FacetQuery) o;
+        if (!keys.equals(other.keys) || !ranges.keySet().equals(other.ranges.keySet())) {
+            return false;
+        }
+        for (Map.Entry<Range, long[]> entry : ranges.entrySet()) {
+            if (!Arrays.equals(entry.getValue(), other.ranges.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = keys.hashCode();
+        for (Map.Entry<Range, long[]> entry : ranges.entrySet()) {
+            hash = 31 * hash + Objects.hash(entry.getKey(), Arrays.hashCode(entry.getValue()));
+        }
+        return hash;
+    }
+
+    public static class Builder {
+        private final Map<Facet, List<String>> values = new EnumMap<>(Facet.class);
+        private final Map<Range, long[]> ranges = new EnumMap<>(Range.class);
+
+        public Builder value(Facet facet, String value) {
+            if (value != null && !value.isBlank()) {
+                values.computeIfAbsent(facet, k -> new ArrayList<>()).add(value.trim());
+            }
+            return this;
+        }
+
+        /**
+         * Ograničava atribut na [min, max]; za otvorenu granicu koristiti
+         * {@link Long#MIN_VALUE} ili {@link Long#MAX_VALUE}.
+         */
+        public Builder range(Range range, long min, long max) {
+            if (min > max) {
+                throw new IllegalArgumentException("Neispravan opseg za " + range.getLabel() + ": " + min + " > " + max);
+            }
+            ranges.put(range, new long[] {min, max});
+            return this;
+        }
+
+        public FacetQuery build() {
+            return new FacetQuery(this);
+        }
+    }
+}
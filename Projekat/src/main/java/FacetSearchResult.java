@@ -0,0 +1,46 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jedna strana pogodaka fasetne pretrage, ukupan broj filmova koji
+ * zadovoljavaju upit i broj pogodaka po vrednosti svake fasete.
+ */
+public class FacetSearchResult {
+
+    private final List<FilmResult> filmovi;
+    private final int ukupno;
+    private final Map<FacetQuery.Facet, FacetCounts> facetCounts;
+
+    public FacetSearchResult(List<FilmResult> filmovi, int ukupno,
+                             Map<FacetQuery.Facet, FacetCounts> facetCounts) {
+        this.filmovi = filmovi;
+        this.ukupno = ukupno;
+        this.facetCounts = facetCounts;
+    }
+
+    public List<FilmResult> getFilmovi() { return filmovi; }
+    public int getUkupno() { return ukupno; }
+
+    /**
+     * Broj pogodaka po vrednosti fasete, sortirano opadajuće po broju.
+     */
+    public Map<String, Integer> getFacetCounts(FacetQuery.Facet facet) {
+        FacetCounts counts = facetCounts.get(facet);
+        return counts != null ? counts.all() : Collections.emptyMap();
+    }
+
+    /**
+     * Najviše {@code n} najčešćih vrednosti fasete, bez sortiranja ostalih.
+     */
+    public Map<String, Integer> getTopFacetCounts(FacetQuery.Facet facet, int n) {
+        FacetCounts counts = facetCounts.get(facet);
+        return counts != null ? counts.top(n) : Collections.emptyMap();
+    }
+
+    /** Broj različitih vrednosti fasete među pogocima. */
+    public int getFacetValueCount(FacetQuery.Facet facet) {
+        FacetCounts counts = facetCounts.get(facet);
+        return counts != null ? counts.size() : 0;
+    }
+}
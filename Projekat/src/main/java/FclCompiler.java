@@ -0,0 +1,703 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prevodi FCL function block u specijalizovanu Java klasu koja računa isti
+ * izlaz kao jFuzzyLogic interpreter, bez obilaska objekata pravila i bez
+ * alokacija po oceni.
+ * <p>
+ * Podržan je podskup FCL-a koji koristi {@code film_fuzzy.fcl}: ulazni termi
+ * kao deo-po-deo linearne funkcije pripadnosti, jedna izlazna promenljiva,
+ * {@code AND : MIN}, {@code ACT : MIN}, {@code ACCU : MAX} i defuzzifikacija
+ * {@code COG} sa 1000 tačaka. Sve ostalo prijavljuje grešku pri prevođenju
+ * umesto da tiho da drugačiji rezultat.
+ * <pre>
+ * java FclCompiler [fcl fajl] [function block] [klasa] [izlazni direktorijum]
+ * </pre>
+ */
+public final class FclCompiler {
+
+    // Broj tačaka na kojima jFuzzyLogic računa COG
+    private static final int COG_POINTS = 1000;
+
+    private FclCompiler() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String fclFile = args.length > 0 ? args[0] : "src/main/resources/film_fuzzy.fcl";
+        String functionBlock = args.length > 1 ? args[1] : "film_kvalitet";
+        String className = args.length > 2 ? args[2] : "FilmKvalitetEvaluator";
+        Path outputDir = Path.of(args.length > 3 ? args[3] : "src/main/java");
+
+        String source = compile(Files.readString(Path.of(fclFile)), functionBlock, className,
+                                Path.of(fclFile).getFileName().toString());
+        Path output = outputDir.resolve(className + ".java");
+        Files.writeString(output, source);
+        System.out.println("Generisano: " + output);
+    }
+
+    /**
+     * Otisak FCL teksta (SHA-256, bez obzira na kraj reda) po kome servis
+     * proverava da li generisana klasa odgovara učitanom FCL-u.
+     */
+    public static String fingerprint(String fclSource) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                                       .digest(fclSource.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new RuntimeException("Greška pri računanju otiska FCL-a: " + e.getMessage());
+        }
+    }
+
+    public static String compile(String fclSource, String functionBlockName, String className, String sourceName) {
+        FunctionBlockModel model = new Parser(fclSource).parse(functionBlockName);
+        return new Generator(model, className, sourceName, fingerprint(fclSource)).generate();
+    }
+
+    private static class Term {
+        final String name;
+        final double[] x;
+        final double[] y;
+
+        Term(String name, double[] x, double[] y) {
+            this.name = name;
+            this.x = x;
+            this.y = y;
+        }
+
+        String shape() {
+            return Arrays.toString(x) + Arrays.toString(y);
+        }
+    }
+
+    private static class Variable {
+        final String name;
+        final boolean output;
+        final Map<String, Term> terms = new LinkedHashMap<>();
+        double defaultValue = Double.NaN;
+        boolean defuzzified;
+
+        Variable(String name, boolean output) {
+            this.name = name;
+            this.output = output;
+        }
+
+        double universeMin() {
+            return terms.values().stream().mapToDouble(t -> t.x[0]).min().orElse(0);
+        }
+
+        double universeMax() {
+            return terms.values().stream().mapToDouble(t -> t.x[t.x.length - 1]).max().orElse(0);
+        }
+    }
+
+    private static class Rule {
+        final String name;
+        final List<String[]> antecedents = new ArrayList<>();
+        String[] consequent;
+
+        Rule(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class FunctionBlockModel {
+        String name;
+        final Map<String, Variable> variables = new LinkedHashMap<>();
+        final List<Rule> rules = new ArrayList<>();
+    }
+
+    private static class Parser {
+        private final List<String> tokens = new ArrayList<>();
+        private int pos;
+
+        Parser(String source) {
+            String text = source.replaceAll("(?s)\\(\\*.*?\\*\\)", " ").replaceAll("//[^\\n]*", " ");
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (text.startsWith(":=", i)) {
+                    tokens.add(":=");
+                    i += 2;
+                } else if ("():;,".indexOf(c) >= 0) {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else {
+                    int start = i;
+                    while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i))
+                                                 || "_.-+".indexOf(text.charAt(i)) >= 0)) {
+                        i++;
+                    }
+                    if (start == i) {
+                        throw error("neočekivan znak '" + c + "'");
+                    }
+                    tokens.add(text.substring(start, i));
+                }
+            }
+        }
+
+        FunctionBlockModel parse(String functionBlockName) {
+            while (pos < tokens.size()) {
+                if (accept("FUNCTION_BLOCK")) {
+                    FunctionBlockModel model = new FunctionBlockModel();
+                    model.name = next();
+                    if (model.name.equals(functionBlockName)) {
+                        parseBody(model);
+                        return validate(model);
+                    }
+                }
+                pos++;
+            }
+            throw new IllegalArgumentException("Function block '" + functionBlockName + "' nije pronađen u FCL-u");
+        }
+
+        private void parseBody(FunctionBlockModel model) {
+            while (!accept("END_FUNCTION_BLOCK")) {
+                String keyword = next();
+                switch (keyword) {
+                    case "VAR_INPUT":
+                    case "VAR_OUTPUT":
+                        parseDeclarations(model, keyword.equals("VAR_OUTPUT"));
+                        break;
+                    case "FUZZIFY":
+                        parseTerms(variable(model, next()), "END_FUZZIFY");
+                        break;
+                    case "DEFUZZIFY":
+                        parseTerms(variable(model, next()), "END_DEFUZZIFY");
+                        break;
+                    case "RULEBLOCK":
+                        parseRules(model);
+                        break;
+                    default:
+                        throw error("nepodržana FCL konstrukcija '" + keyword + "'");
+                }
+            }
+        }
+
+        private void parseDeclarations(FunctionBlockModel model, boolean output) {
+            while (!accept("END_VAR")) {
+                String name = next();
+                expect(":");
+                expect("REAL");
+                expect(";");
+                model.variables.put(name, new Variable(name, output));
+            }
+        }
+
+        private void parseTerms(Variable variable, String end) {
+            while (!accept(end)) {
+                String keyword = next();
+                if (keyword.equals("TERM")) {
+                    String name = next();
+                    expect(":=");
+                    List<double[]> points = new ArrayList<>();
+                    while (accept("(")) {
+                        double x = number();
+                        expect(",");
+                        double y = number();
+                        expect(")");
+                        points.add(new double[] {x, y});
+                    }
+                    expect(";");
+                    if (points.size() < 2) {
+                        throw error("term '" + name + "' mora biti zadat tačkama deo-po-deo linearne funkcije");
+                    }
+                    double[] xs = points.stream().mapToDouble(p -> p[0]).toArray();
+                    double[] ys = points.stream().mapToDouble(p -> p[1]).toArray();
+                    variable.terms.put(name, new Term(name, xs, ys));
+                } else if (keyword.equals("METHOD") && variable.output) {
+                    expect(":");
+                    require(next(), "COG", "METHOD");
+                    expect(";");
+                    variable.defuzzified = true;
+                } else if (keyword.equals("DEFAULT") && variable.output) {
+                    expect(":=");
+                    variable.defaultValue = number();
+                    expect(";");
+                } else {
+                    throw error("nepodržana FCL konstrukcija '" + keyword + "' u promenljivoj " + variable.name);
+                }
+            }
+        }
+
+        private void parseRules(FunctionBlockModel model) {
+            next();
+            while (!accept("END_RULEBLOCK")) {
+                String keyword = next();
+                if (keyword.equals("AND") || keyword.equals("ACT")) {
+                    expect(":");
+                    require(next(), "MIN", keyword);
+                    expect(";");
+                } else if (keyword.equals("ACCU")) {
+                    expect(":");
+                    require(next(), "MAX", keyword);
+                    expect(";");
+                } else if (keyword.equals("RULE")) {
+                    Rule rule = new Rule(next());
+                    expect(":");
+                    expect("IF");
+                    do {
+                        rule.antecedents.add(termReference(model));
+                    } while (accept("AND"));
+                    if (accept("OR")) {
+                        throw error("OR u pravilima nije podržan");
+                    }
+                    expect("THEN");
+                    rule.consequent = termReference(model);
+                    expect(";");
+                    model.rules.add(rule);
+                } else {
+                    throw error("nepodržana FCL konstrukcija '" + keyword + "' u bloku pravila");
+                }
+            }
+        }
+
+        private String[] termReference(FunctionBlockModel model) {
+            Variable variable = variable(model, next());
+            expect("IS");
+            String term = next();
+            if (term.equals("NOT")) {
+                throw error("NOT u pravilima nije podržan");
+            }
+            if (!variable.terms.containsKey(term)) {
+                throw error("promenljiva " + variable.name + " nema term '" + term + "'");
+            }
+            return new String[] {variable.name, term};
+        }
+
+        private FunctionBlockModel validate(FunctionBlockModel model) {
+            long outputs = model.variables.values().stream().filter(v -> v.output).count();
+            if (outputs != 1) {
+                throw new IllegalArgumentException("Kompajler podržava tačno jednu izlaznu promenljivu, a ima ih " + outputs);
+            }
+            for (Variable variable : model.variables.values()) {
+                if (variable.terms.isEmpty()) {
+                    throw new IllegalArgumentException("Promenljiva " + variable.name + " nema nijedan term");
+                }
+                if (variable.output && (!variable.defuzzified || Double.isNaN(variable.defaultValue))) {
+                    throw new IllegalArgumentException("Izlaz " + variable.name + " mora imati METHOD : COG i DEFAULT");
+                }
+            }
+            for (Rule rule : model.rules) {
+                if (!model.variables.get(rule.consequent[0]).output) {
+                    throw new IllegalArgumentException("Pravilo " + rule.name + " zaključuje o ulaznoj promenljivoj");
+                }
+            }
+            return model;
+        }
+
+        private Variable variable(FunctionBlockModel model, String name) {
+            Variable variable = model.variables.get(name);
+            if (variable == null) {
+                throw error("promenljiva '" + name + "' nije deklarisana");
+            }
+            return variable;
+        }
+
+        private void require(String actual, String expected, String setting) {
+            if (!actual.equals(expected)) {
+                throw error(setting + " : " + actual + " nije podržan, samo " + expected);
+            }
+        }
+
+        private double number() {
+            String token = next();
+            try {
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw error("očekivan broj, a nađeno '" + token + "'");
+            }
+        }
+
+        private boolean accept(String token) {
+            if (pos < tokens.size() && tokens.get(pos).equals(token)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw error("očekivano '" + token + "'");
+            }
+        }
+
+        private String next() {
+            if (pos >= tokens.size()) {
+                throw error("neočekivan kraj FCL-a");
+            }
+            return tokens.get(pos++);
+        }
+
+        private IllegalArgumentException error(String message) {
+            String near = pos < tokens.size() ? " (kod '" + tokens.get(pos) + "')" : "";
+            return new IllegalArgumentException("Greška pri prevođenju FCL-a: " + message + near);
+        }
+    }
+
+    private static class Generator {
+        private final FunctionBlockModel model;
+        private final String className;
+        private final String sourceName;
+        private final String fingerprint;
+        private final Variable output;
+        private final StringBuilder out = new StringBuilder();
+
+        // Ulazni termi istog oblika dele jednu metodu pripadnosti
+        private final Map<String, String> methodsByShape = new LinkedHashMap<>();
+        private final Map<String, Term> termsByMethod = new HashMap<>();
+
+        Generator(FunctionBlockModel model, String className, String sourceName, String fingerprint) {
+            this.model = model;
+            this.className = className;
+            this.sourceName = sourceName;
+            this.fingerprint = fingerprint;
+            this.output = model.variables.values().stream().filter(v -> v.output).findFirst().get();
+        }
+
+        String generate() {
+            List<Variable> inputs = new ArrayList<>();
+            for (Variable variable : model.variables.values()) {
+                if (!variable.output) {
+                    inputs.add(variable);
+                }
+            }
+            Map<String, String> usedMemberships = new LinkedHashMap<>();
+            for (Rule rule : model.rules) {
+                for (String[] antecedent : rule.antecedents) {
+                    usedMemberships.putIfAbsent(local(antecedent), membershipMethod(antecedent));
+                }
+            }
+
+            double min = output.universeMin();
+            double step = (output.universeMax() - min) / COG_POINTS;
+
+            line(0, "/**");
+            line(0, " * Generisano iz " + sourceName + " (FUNCTION_BLOCK " + model.name + ") pomoću {@link FclCompiler}.");
+            line(0, " * Ne menjati ručno; posle izmene FCL-a klasa se ponovo generiše:");
+            line(0, " * <pre>");
+            line(0, " * java FclCompiler src/main/resources/" + sourceName + " " + model.name + " " + className
+                    + " src/main/java");
+            line(0, " * </pre>");
+            line(0, " */");
+            line(0, "public final class " + className + " {");
+            line(0, "");
+            line(1, "/** Otisak FCL teksta iz kog je klasa generisana, videti {@link FclCompiler#fingerprint}. */");
+            line(1, "public static final String FCL_FINGERPRINT = \"" + fingerprint + "\";");
+            line(0, "");
+            line(1, "private static final int POINTS = " + COG_POINTS + ";");
+            line(1, "private static final double MIN = " + literal(min) + ";");
+            line(1, "private static final double STEP = " + literal(step) + ";");
+            line(1, "private static final double DEFAULT = " + literal(output.defaultValue) + ";");
+            line(0, "");
+            line(1, "// Tačke COG-a, sabrane istim redom kao u interpreteru, i izlazni termi u njima");
+            line(1, "private static final double[] X = new double[POINTS];");
+            for (Term term : output.terms.values()) {
+                line(1, "private static final double[] " + table(term) + " = new double[POINTS];");
+            }
+            line(0, "");
+            line(1, "// Opseg tačaka u kojima je izlazni term veći od nule: [FROM, TO)");
+            for (Term term : output.terms.values()) {
+                line(1, "private static final int " + table(term) + "_FROM;");
+                line(1, "private static final int " + table(term) + "_TO;");
+            }
+            line(0, "");
+            line(1, "static {");
+            line(2, "double x = MIN;");
+            line(2, "for (int i = 0; i < POINTS; i++, x += STEP) {");
+            line(3, "X[i] = x;");
+            for (Term term : output.terms.values()) {
+                line(3, table(term) + "[i] = " + outputMethod(term) + "(x);");
+            }
+            line(2, "}");
+            for (Term term : output.terms.values()) {
+                line(2, table(term) + "_FROM = from(" + table(term) + ");");
+                line(2, table(term) + "_TO = to(" + table(term) + ");");
+            }
+            line(1, "}");
+            line(0, "");
+            line(1, "private " + className + "() {");
+            line(1, "}");
+            line(0, "");
+
+            List<String> parameters = new ArrayList<>();
+            for (Variable input : inputs) {
+                parameters.add("double " + camelCase(input.name));
+            }
+            line(1, "public static double evaluate(" + String.join(", ", parameters) + ") {");
+            inference(usedMemberships);
+            line(2, "return defuzzify(sum, weightedSum);");
+            line(1, "}");
+            line(0, "");
+            line(1, "/**");
+            line(1, " * Zbir pripadnosti i zbir pripadnosti pomnoženih tačkom COG-a, upisani u");
+            line(1, " * {@code sums[0]} i {@code sums[1]}. Za razliku od same ocene, oba zbira su");
+            line(1, " * neprekidne funkcije ulaza, pa se mogu interpolirati.");
+            line(1, " */");
+            line(1, "public static void cogSums(" + String.join(", ", parameters) + ", double[] sums) {");
+            inference(usedMemberships);
+            line(2, "sums[0] = sum;");
+            line(2, "sums[1] = weightedSum;");
+            line(1, "}");
+            line(0, "");
+            line(1, "public static double defuzzify(double sum, double weightedSum) {");
+            line(2, "return sum <= 0.0 ? DEFAULT : weightedSum / sum;");
+            line(1, "}");
+            line(0, "");
+            line(1, "/**");
+            line(1, " * Samo aktivacije izlaznih terma posle ACCU, redom kao u {@link #outputTerms()},");
+            line(1, " * za spoljašnju defuzzifikaciju ({@link CogDefuzzifier}).");
+            line(1, " */");
+            line(1, "public static void activations(" + String.join(", ", parameters) + ", double[] activations) {");
+            ruleActivations(usedMemberships);
+            line(0, "");
+            int index = 0;
+            for (Term term : output.terms.values()) {
+                line(2, "activations[" + index++ + "] = " + activation(term) + ";");
+            }
+            line(1, "}");
+            line(0, "");
+            line(1, "/**");
+            line(1, " * Stepen ispunjenosti svakog pravila (AND = MIN), redom kao u {@link #ruleNames()},");
+            line(1, " * za objašnjenje ocene i brojanje aktiviranih pravila.");
+            line(1, " */");
+            line(1, "public static void ruleDegrees(" + String.join(", ", parameters) + ", double[] degrees) {");
+            memberships(usedMemberships);
+            line(0, "");
+            index = 0;
+            for (Rule rule : model.rules) {
+                line(2, "degrees[" + index++ + "] = " + strength(rule) + ";");
+            }
+            line(1, "}");
+            line(0, "");
+            List<String> ruleNames = new ArrayList<>();
+            for (Rule rule : model.rules) {
+                ruleNames.add("\"" + rule.name + "\"");
+            }
+            line(1, "/** Imena pravila redom kao u FCL-u. */");
+            line(1, "public static String[] ruleNames() {");
+            line(2, "return new String[] {" + String.join(", ", ruleNames) + "};");
+            line(1, "}");
+            line(0, "");
+            line(1, "/** Tekstovi pravila ({@code IF ... THEN ...}) redom kao u {@link #ruleNames()}. */");
+            line(1, "public static String[] ruleTexts() {");
+            line(2, "return new String[] {");
+            for (int i = 0; i < model.rules.size(); i++) {
+                line(3, "\"" + ruleText(model.rules.get(i)) + "\"" + (i < model.rules.size() - 1 ? "," : ""));
+            }
+            line(2, "};");
+            line(1, "}");
+            line(0, "");
+            line(1, "/** Tačke COG-a. */");
+            line(1, "public static double[] cogPoints() {");
+            line(2, "return X.clone();");
+            line(1, "}");
+            line(0, "");
+            line(1, "/** Vrednosti izlaznih terma u tačkama COG-a, po jedan niz za svaki term. */");
+            line(1, "public static double[][] outputTerms() {");
+            List<String> tables = new ArrayList<>();
+            for (Term term : output.terms.values()) {
+                tables.add(table(term) + ".clone()");
+            }
+            line(2, "return new double[][] {" + String.join(", ", tables) + "};");
+            line(1, "}");
+
+            for (Map.Entry<String, String> entry : methodsByShape.entrySet()) {
+                membershipMethod(entry.getValue(), termsByMethod.get(entry.getValue()));
+            }
+            for (Term term : output.terms.values()) {
+                membershipMethod(outputMethod(term), term);
+            }
+
+            line(0, "");
+            line(1, "private static int from(double[] membership) {");
+            line(2, "int i = 0;");
+            line(2, "while (i < POINTS && membership[i] <= 0.0) {");
+            line(3, "i++;");
+            line(2, "}");
+            line(2, "return i;");
+            line(1, "}");
+            line(0, "");
+            line(1, "private static int to(double[] membership) {");
+            line(2, "int i = POINTS;");
+            line(2, "while (i > 0 && membership[i - 1] <= 0.0) {");
+            line(3, "i--;");
+            line(2, "}");
+            line(2, "return i;");
+            line(1, "}");
+            line(0, "}");
+            return out.toString();
+        }
+
+        private void inference(Map<String, String> usedMemberships) {
+            ruleActivations(usedMemberships);
+            line(0, "");
+            aggregation();
+        }
+
+        private void ruleActivations(Map<String, String> usedMemberships) {
+            memberships(usedMemberships);
+            line(0, "");
+            for (Term term : output.terms.values()) {
+                line(2, "double " + activation(term) + " = 0.0;");
+            }
+            for (Rule rule : model.rules) {
+                String target = activation(output.terms.get(rule.consequent[1]));
+                line(2, "// RULE " + rule.name);
+                line(2, target + " = Math.max(" + target + ", " + strength(rule) + ");");
+            }
+        }
+
+        private void memberships(Map<String, String> usedMemberships) {
+            for (Map.Entry<String, String> entry : usedMemberships.entrySet()) {
+                String variable = entry.getKey().substring(0, entry.getKey().indexOf('#'));
+                line(2, "double " + localName(entry.getKey()) + " = " + entry.getValue()
+                        + "(" + camelCase(variable) + ");");
+            }
+        }
+
+        // Stepen pravila: MIN preko svih uslova (AND)
+        private String strength(Rule rule) {
+            String strength = localName(local(rule.antecedents.get(0)));
+            for (int i = 1; i < rule.antecedents.size(); i++) {
+                strength = "Math.min(" + strength + ", " + localName(local(rule.antecedents.get(i))) + ")";
+            }
+            return strength;
+        }
+
+        // Tekst pravila onako kako je zapisano u FCL-u, bez imena
+        private static String ruleText(Rule rule) {
+            List<String> uslovi = new ArrayList<>();
+            for (String[] antecedent : rule.antecedents) {
+                uslovi.add(antecedent[0] + " IS " + antecedent[1]);
+            }
+            return "IF " + String.join(" AND ", uslovi) + " THEN " + rule.consequent[0] + " IS " + rule.consequent[1];
+        }
+
+        private void aggregation() {
+            line(2, "int from = POINTS;");
+            line(2, "int to = 0;");
+            for (Term term : output.terms.values()) {
+                line(2, "if (" + activation(term) + " > 0.0) {");
+                line(3, "from = Math.min(from, " + table(term) + "_FROM);");
+                line(3, "to = Math.max(to, " + table(term) + "_TO);");
+                line(2, "}");
+            }
+            line(0, "");
+            line(2, "// Tačke van opsega aktivnih terma doprinose nulom, pa se preskaču");
+            line(2, "double sum = 0.0;");
+            line(2, "double weightedSum = 0.0;");
+            line(2, "for (int i = from; i < to; i++) {");
+            line(3, "double mu = 0.0;");
+            for (Term term : output.terms.values()) {
+                line(3, "mu = Math.max(mu, Math.min(" + activation(term) + ", " + table(term) + "[i]));");
+            }
+            line(3, "sum += mu;");
+            line(3, "weightedSum += X[i] * mu;");
+            line(2, "}");
+        }
+
+        private void membershipMethod(String name, Term term) {
+            StringBuilder points = new StringBuilder();
+            for (int i = 0; i < term.x.length; i++) {
+                points.append(i == 0 ? "" : " ").append("(").append(term.x[i]).append(", ").append(term.y[i]).append(")");
+            }
+            int last = term.x.length - 1;
+            line(0, "");
+            line(1, "// " + points);
+            line(1, "private static double " + name + "(double x) {");
+            line(2, "if (x <= " + literal(term.x[0]) + ") {");
+            line(3, "return " + literal(term.y[0]) + ";");
+            line(2, "}");
+            for (int i = 1; i <= last; i++) {
+                // Segment nulte širine je nedostižan, isti x je obrađen u prethodnom
+                if (term.x[i] == term.x[i - 1]) {
+                    continue;
+                }
+                line(2, "if (x <= " + literal(term.x[i]) + ") {");
+                if (term.y[i] == term.y[i - 1]) {
+                    line(3, "return " + literal(term.y[i]) + ";");
+                } else {
+                    line(3, "return " + literal(term.y[i - 1]) + " + " + literal(term.y[i] - term.y[i - 1])
+                            + " * ((x - " + literal(term.x[i - 1]) + ") / " + literal(term.x[i] - term.x[i - 1]) + ");");
+                }
+                line(2, "}");
+            }
+            line(2, "return " + literal(term.y[last]) + ";");
+            line(1, "}");
+        }
+
+        private String membershipMethod(String[] reference) {
+            Term term = model.variables.get(reference[0]).terms.get(reference[1]);
+            String method = methodsByShape.get(term.shape());
+            if (method == null) {
+                method = termsByMethod.containsKey(term.name) ? camelCase(reference[0] + "_" + term.name) : term.name;
+                methodsByShape.put(term.shape(), method);
+                termsByMethod.put(method, term);
+            }
+            return method;
+        }
+
+        private String outputMethod(Term term) {
+            return camelCase(output.name + "_" + term.name);
+        }
+
+        private String table(Term term) {
+            return (output.name + "_" + term.name).toUpperCase(Locale.ROOT);
+        }
+
+        private String activation(Term term) {
+            return camelCase("aktivacija_" + term.name);
+        }
+
+        private static String local(String[] reference) {
+            return reference[0] + "#" + reference[1];
+        }
+
+        private static String localName(String local) {
+            return camelCase(local.replace('#', '_'));
+        }
+
+        private static String camelCase(String name) {
+            StringBuilder result = new StringBuilder();
+            boolean upper = false;
+            for (char c : name.toCharArray()) {
+                if (c == '_') {
+                    upper = result.length() > 0;
+                } else {
+                    result.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
+            }
+            return result.toString();
+        }
+
+        private static String literal(double value) {
+            return Double.toString(value);
+        }
+
+        private void line(int indent, String text) {
+            if (!text.isEmpty()) {
+                out.append("    ".repeat(indent)).append(text);
+            }
+            out.append('\n');
+        }
+    }
+}
@@ -0,0 +1,210 @@
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.DatasetGraphReadOnly;
+import org.apache.jena.system.Txn;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Zajednički katalog filmova. Ontologija se učitava samo jednom sa classpath-a
+ * i deli između svih servisa kao read-only Jena {@link Dataset}.
+ * <p>
+ * Podaci se podrazumevano drže u transakcionom in-memory skladištu (TIM).
+ * Ako je postavljeno sistemsko svojstvo {@code film.katalog.tdb2}, katalog se
+ * umesto toga otvara iz trajnog TDB2 skladišta u zadatom direktorijumu.
+ * Podaci o filmovima se mogu zameniti fajlom sa diska preko {@code film.katalog.podaci}.
+ * Oba skladišta podržavaju više istovremenih čitalaca; upiti se izvršavaju
+ * unutar read transakcije preko {@link #read(Supplier)}.
+ */
+public class FilmCatalog {
+
+    public static final String NAMESPACE = "http://www.iz-projekat/film-sema#";
+
+    public static final String TDB2_DIRECTORY_PROPERTY = "film.katalog.tdb2";
+
+    /**
+     * Putanja do TTL fajla sa podacima koji zamenjuje {@code film_podaci.ttl},
+     * npr. katalog napravljen sa {@link SyntheticCatalogGenerator}.
+     */
+    public static final String DATA_FILE_PROPERTY = "film.katalog.podaci";
+
+    private static final String[] ONTOLOGY_RESOURCES = {
+        "film_sema.ttl", System.getProperty(DATA_FILE_PROPERTY, "film_podaci.ttl")
+    };
+
+    private static volatile FilmCatalog instance;
+
+    private final DatasetGraph storage;
+    // Samo u TDB2 režimu, da ponovno učitavanje ažurira i oznaku skladišta
+    private final Tdb2CatalogStore store;
+    private final Dataset dataset;
+    private final String storageDescription;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long loadTimeMillis;
+    private final long heapUsedBytes;
+
+    public static FilmCatalog getInstance() {
+        FilmCatalog catalog = instance;
+        if (catalog == null) {
+            synchronized (FilmCatalog.class) {
+                catalog = instance;
+                if (catalog == null) {
+                    catalog = new FilmCatalog();
+                    instance = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    private FilmCatalog() {
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+
+        String tdb2Directory = System.getProperty(TDB2_DIRECTORY_PROPERTY);
+        if (tdb2Directory == null || tdb2Directory.isBlank()) {
+            this.store = null;
+            this.storage = loadInMemory();
+            this.storageDescription = "in-memory";
+        } else {
+            this.store = new Tdb2CatalogStore(Path.of(tdb2Directory), ONTOLOGY_RESOURCES);
+            this.storage = store.open();
+            this.storageDescription = "TDB2 " + tdb2Directory + (store.wasRebuilt() ? ", ponovo izgrađen" : "");
+        }
+
+        this.dataset = DatasetFactory.wrap(new DatasetGraphReadOnly(storage));
+        this.loadTimeMillis = (System.nanoTime() - start) / 1_000_000;
+        this.heapUsedBytes = Math.max(0, usedHeap() - heapBefore);
+
+        printLoadStatistics();
+    }
+
+    private static DatasetGraph loadInMemory() {
+        DatasetGraph storage = DatasetGraphFactory.createTxnMem();
+        readOntology(storage);
+        return storage;
+    }
+
+    static void readOntology(DatasetGraph storage, String[] resources) {
+        try {
+            Txn.executeWrite(storage, () -> {
+                storage.clear();
+                for (String resource : resources) {
+                    readResource(storage, resource);
+                }
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Greška pri učitavanju ontologije: " + e.getMessage());
+        }
+    }
+
+    private static void readOntology(DatasetGraph storage) {
+        readOntology(storage, ONTOLOGY_RESOURCES);
+    }
+
+    /**
+     * Ponovo čita TTL fajlove kataloga (sa diska ili classpath-a) u postojeće
+     * skladište, npr. posle izmene {@code film.katalog.podaci}, i obaveštava
+     * registrovane slušaoce (indekse, keševe) da je katalog promenjen. Poziva
+     * se iz menija aplikacije.
+     */
+    public void reload() {
+        if (store != null) {
+            store.reload(storage);
+        } else {
+            readOntology(storage);
+        }
+        generation.incrementAndGet();
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Registruje akciju koja se poziva posle svake promene sadržaja kataloga.
+     * Servis koji registruje akciju uklanja je preko
+     * {@link #removeChangeListener(Runnable)} kada se zatvori.
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Broj promena kataloga od učitavanja; raste pri svakom {@link #reload()}.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    private static void readResource(DatasetGraph storage, String resource) {
+        try (InputStream in = CatalogResources.open(resource)) {
+            RDFDataMgr.read(storage, in, Lang.TURTLE);
+        } catch (java.io.IOException e) {
+            throw new RuntimeException("Greška pri čitanju resursa " + resource + ": " + e.getMessage());
+        }
+    }
+
+    public Dataset getDataset() {
+        return dataset;
+    }
+
+    public QueryExecution createQueryExecution(Query query) {
+        return QueryExecutionFactory.create(query, dataset);
+    }
+
+    /**
+     * Izvršava čitanje kataloga unutar read transakcije (obavezno za TDB2).
+     */
+    public <T> T read(Supplier<T> action) {
+        return Txn.calculateRead(dataset, action);
+    }
+
+    /**
+     * Započinje read transakciju koja ostaje otvorena dok se ne pozove vraćena
+     * akcija, npr. za tokove rezultata koji se čitaju van {@link #read(Supplier)}.
+     * Ako je transakcija već aktivna na ovoj niti, vraća praznu akciju.
+     */
+    public Runnable beginRead() {
+        if (dataset.isInTransaction()) {
+            return () -> { };
+        }
+        dataset.begin(TxnType.READ);
+        return dataset::end;
+    }
+
+    public long getTripleCount() {
+        return read(() -> dataset.getDefaultModel().size());
+    }
+
+    public long getLoadTimeMillis() { return loadTimeMillis; }
+    public long getHeapUsedBytes() { return heapUsedBytes; }
+
+    public void printLoadStatistics() {
+        System.out.printf("Katalog učitan (%s): %d trojki za %d ms (heap ~%.1f MB)%n",
+                          storageDescription, getTripleCount(), loadTimeMillis,
+                          heapUsedBytes / (1024.0 * 1024.0));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,504 @@
+/**
+ * Generisano iz film_fuzzy.fcl (FUNCTION_BLOCK film_kvalitet) pomoću {@link FclCompiler}.
+ * Ne menjati ručno; posle izmene FCL-a klasa se ponovo generiše:
+ * <pre>
+ * java FclCompiler src/main/resources/film_fuzzy.fcl film_kvalitet FilmKvalitetEvaluator src/main/java
+ * </pre>
+ */
+public final class FilmKvalitetEvaluator {
+
+    /** Otisak FCL teksta iz kog je klasa generisana, videti {@link FclCompiler#fingerprint}. */
+    public static final String FCL_FINGERPRINT = "780e15f54324724ed68854b8f650abb99f6670edf78f8c3027b1c8b969841c2e";
+
+    private static final int POINTS = 1000;
+    private static final double MIN = 0.0;
+    private static final double STEP = 0.01;
+    private static final double DEFAULT = 5.0;
+
+    // Tačke COG-a, sabrane istim redom kao u interpreteru, i izlazni termi u njima
+    private static final double[] X = new double[POINTS];
+    private static final double[] KVALITET_LOS = new double[POINTS];
+    private static final double[] KVALITET_SLAB = new double[POINTS];
+    private static final double[] KVALITET_PROSECAN = new double[POINTS];
+    private static final double[] KVALITET_DOBAR = new double[POINTS];
+    private static final double[] KVALITET_ODLICAN = new double[POINTS];
+
+    // Opseg tačaka u kojima je izlazni term veći od nule: [FROM, TO)
+    private static final int KVALITET_LOS_FROM;
+    private static final int KVALITET_LOS_TO;
+    private static final int KVALITET_SLAB_FROM;
+    private static final int KVALITET_SLAB_TO;
+    private static final int KVALITET_PROSECAN_FROM;
+    private static final int KVALITET_PROSECAN_TO;
+    private static final int KVALITET_DOBAR_FROM;
+    private static final int KVALITET_DOBAR_TO;
+    private static final int KVALITET_ODLICAN_FROM;
+    private static final int KVALITET_ODLICAN_TO;
+
+    static {
+        double x = MIN;
+        for (int i = 0; i < POINTS; i++, x += STEP) {
+            X[i] = x;
+            KVALITET_LOS[i] = kvalitetLos(x);
+            KVALITET_SLAB[i] = kvalitetSlab(x);
+            KVALITET_PROSECAN[i] = kvalitetProsecan(x);
+            KVALITET_DOBAR[i] = kvalitetDobar(x);
+            KVALITET_ODLICAN[i] = kvalitetOdlican(x);
+        }
+        KVALITET_LOS_FROM = from(KVALITET_LOS);
+        KVALITET_LOS_TO = to(KVALITET_LOS);
+        KVALITET_SLAB_FROM = from(KVALITET_SLAB);
+        KVALITET_SLAB_TO = to(KVALITET_SLAB);
+        KVALITET_PROSECAN_FROM = from(KVALITET_PROSECAN);
+        KVALITET_PROSECAN_TO = to(KVALITET_PROSECAN);
+        KVALITET_DOBAR_FROM = from(KVALITET_DOBAR);
+        KVALITET_DOBAR_TO = to(KVALITET_DOBAR);
+        KVALITET_ODLICAN_FROM = from(KVALITET_ODLICAN);
+        KVALITET_ODLICAN_TO = to(KVALITET_ODLICAN);
+    }
+
+    private FilmKvalitetEvaluator() {
+    }
+
+    public static double evaluate(double rezija, double gluma, double scenario, double originalnost, double vizuelniEfekti) {
+        double rezijaOdlicna = odlicna(rezija);
+        double glumaOdlicna = odlicna(gluma);
+        double scenarioOdlicna = odlicna(scenario);
+        double originalnostOdlicna = odlicna(originalnost);
+        double glumaDobra = dobra(gluma);
+        double scenarioDobra = dobra(scenario);
+        double rezijaDobra = dobra(rezija);
+        double scenarioLosa = losa(scenario);
+        double glumaLosa = losa(gluma);
+        double rezijaLosa = losa(rezija);
+        double vizuelniEfektiOdlicna = odlicna(vizuelniEfekti);
+        double originalnostDobra = dobra(originalnost);
+
+        double aktivacijaLos = 0.0;
+        double aktivacijaSlab = 0.0;
+        double aktivacijaProsecan = 0.0;
+        double aktivacijaDobar = 0.0;
+        double aktivacijaOdlican = 0.0;
+        // RULE 1
+        aktivacijaOdlican = Math.max(aktivacijaOdlican, Math.min(Math.min(rezijaOdlicna, glumaOdlicna), scenarioOdlicna));
+        // RULE 2
+        aktivacijaOdlican = Math.max(aktivacijaOdlican, Math.min(Math.min(rezijaOdlicna, glumaOdlicna), originalnostOdlicna));
+        // RULE 3
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(Math.min(rezijaOdlicna, glumaDobra), scenarioDobra));
+        // RULE 4
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(Math.min(rezijaDobra, glumaDobra), scenarioDobra));
+        // RULE 5
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(originalnostOdlicna, rezijaOdlicna));
+        // RULE 6
+        aktivacijaSlab = Math.max(aktivacijaSlab, Math.min(scenarioLosa, glumaLosa));
+        // RULE 7
+        aktivacijaLos = Math.max(aktivacijaLos, Math.min(rezijaLosa, scenarioLosa));
+        // RULE 8
+        aktivacijaProsecan = Math.max(aktivacijaProsecan, Math.min(Math.min(rezijaDobra, glumaLosa), scenarioDobra));
+        // RULE 9
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(vizuelniEfektiOdlicna, originalnostDobra));
+        // RULE 10
+        aktivacijaLos = Math.max(aktivacijaLos, Math.min(Math.min(rezijaLosa, glumaLosa), scenarioLosa));
+        // RULE 11
+        aktivacijaProsecan = Math.max(aktivacijaProsecan, Math.min(Math.min(rezijaDobra, glumaDobra), scenarioLosa));
+        // RULE 12
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(glumaOdlicna, scenarioDobra));
+
+        int from = POINTS;
+        int to = 0;
+        if (aktivacijaLos > 0.0) {
+            from = Math.min(from, KVALITET_LOS_FROM);
+            to = Math.max(to, KVALITET_LOS_TO);
+        }
+        if (aktivacijaSlab > 0.0) {
+            from = Math.min(from, KVALITET_SLAB_FROM);
+            to = Math.max(to, KVALITET_SLAB_TO);
+        }
+        if (aktivacijaProsecan > 0.0) {
+            from = Math.min(from, KVALITET_PROSECAN_FROM);
+            to = Math.max(to, KVALITET_PROSECAN_TO);
+        }
+        if (aktivacijaDobar > 0.0) {
+            from = Math.min(from, KVALITET_DOBAR_FROM);
+            to = Math.max(to, KVALITET_DOBAR_TO);
+        }
+        if (aktivacijaOdlican > 0.0) {
+            from = Math.min(from, KVALITET_ODLICAN_FROM);
+            to = Math.max(to, KVALITET_ODLICAN_TO);
+        }
+
+        // Tačke van opsega aktivnih terma doprinose nulom, pa se preskaču
+        double sum = 0.0;
+        double weightedSum = 0.0;
+        for (int i = from; i < to; i++) {
+            double mu = 0.0;
+            mu = Math.max(mu, Math.min(aktivacijaLos, KVALITET_LOS[i]));
+            mu = Math.max(mu, Math.min(aktivacijaSlab, KVALITET_SLAB[i]));
+            mu = Math.max(mu, Math.min(aktivacijaProsecan, KVALITET_PROSECAN[i]));
+            mu = Math.max(mu, Math.min(aktivacijaDobar, KVALITET_DOBAR[i]));
+            mu = Math.max(mu, Math.min(aktivacijaOdlican, KVALITET_ODLICAN[i]));
+            sum += mu;
+            weightedSum += X[i] * mu;
+        }
+        return defuzzify(sum, weightedSum);
+    }
+
+    /**
+     * Zbir pripadnosti i zbir pripadnosti pomnoženih tačkom COG-a, upisani u
+     * {@code sums[0]} i {@code sums[1]}. Za razliku od same ocene, oba zbira su
+     * neprekidne funkcije ulaza, pa se mogu interpolirati.
+     */
+    public static void cogSums(double rezija, double gluma, double scenario, double originalnost, double vizuelniEfekti, double[] sums) {
+        double rezijaOdlicna = odlicna(rezija);
+        double glumaOdlicna = odlicna(gluma);
+        double scenarioOdlicna = odlicna(scenario);
+        double originalnostOdlicna = odlicna(originalnost);
+        double glumaDobra = dobra(gluma);
+        double scenarioDobra = dobra(scenario);
+        double rezijaDobra = dobra(rezija);
+        double scenarioLosa = losa(scenario);
+        double glumaLosa = losa(gluma);
+        double rezijaLosa = losa(rezija);
+        double vizuelniEfektiOdlicna = odlicna(vizuelniEfekti);
+        double originalnostDobra = dobra(originalnost);
+
+        double aktivacijaLos = 0.0;
+        double aktivacijaSlab = 0.0;
+        double aktivacijaProsecan = 0.0;
+        double aktivacijaDobar = 0.0;
+        double aktivacijaOdlican = 0.0;
+        // RULE 1
+        aktivacijaOdlican = Math.max(aktivacijaOdlican, Math.min(Math.min(rezijaOdlicna, glumaOdlicna), scenarioOdlicna));
+        // RULE 2
+        aktivacijaOdlican = Math.max(aktivacijaOdlican, Math.min(Math.min(rezijaOdlicna, glumaOdlicna), originalnostOdlicna));
+        // RULE 3
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(Math.min(rezijaOdlicna, glumaDobra), scenarioDobra));
+        // RULE 4
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(Math.min(rezijaDobra, glumaDobra), scenarioDobra));
+        // RULE 5
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(originalnostOdlicna, rezijaOdlicna));
+        // RULE 6
+        aktivacijaSlab = Math.max(aktivacijaSlab, Math.min(scenarioLosa, glumaLosa));
+        // RULE 7
+        aktivacijaLos = Math.max(aktivacijaLos, Math.min(rezijaLosa, scenarioLosa));
+        // RULE 8
+        aktivacijaProsecan = Math.max(aktivacijaProsecan, Math.min(Math.min(rezijaDobra, glumaLosa), scenarioDobra));
+        // RULE 9
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(vizuelniEfektiOdlicna, originalnostDobra));
+        // RULE 10
+        aktivacijaLos = Math.max(aktivacijaLos, Math.min(Math.min(rezijaLosa, glumaLosa), scenarioLosa));
+        // RULE 11
+        aktivacijaProsecan = Math.max(aktivacijaProsecan, Math.min(Math.min(rezijaDobra, glumaDobra), scenarioLosa));
+        // RULE 12
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(glumaOdlicna, scenarioDobra));
+
+        int from = POINTS;
+        int to = 0;
+        if (aktivacijaLos > 0.0) {
+            from = Math.min(from, KVALITET_LOS_FROM);
+            to = Math.max(to, KVALITET_LOS_TO);
+        }
+        if (aktivacijaSlab > 0.0) {
+            from = Math.min(from, KVALITET_SLAB_FROM);
+            to = Math.max(to, KVALITET_SLAB_TO);
+        }
+        if (aktivacijaProsecan > 0.0) {
+            from = Math.min(from, KVALITET_PROSECAN_FROM);
+            to = Math.max(to, KVALITET_PROSECAN_TO);
+        }
+        if (aktivacijaDobar > 0.0) {
+            from = Math.min(from, KVALITET_DOBAR_FROM);
+            to = Math.max(to, KVALITET_DOBAR_TO);
+        }
+        if (aktivacijaOdlican > 0.0) {
+            from = Math.min(from, KVALITET_ODLICAN_FROM);
+            to = Math.max(to, KVALITET_ODLICAN_TO);
+        }
+
+        // Tačke van opsega aktivnih terma doprinose nulom, pa se preskaču
+        double sum = 0.0;
+        double weightedSum = 0.0;
+        for (int i = from; i < to; i++) {
+            double mu = 0.0;
+            mu = Math.max(mu, Math.min(aktivacijaLos, KVALITET_LOS[i]));
+            mu = Math.max(mu, Math.min(aktivacijaSlab, KVALITET_SLAB[i]));
+            mu = Math.max(mu, Math.min(aktivacijaProsecan, KVALITET_PROSECAN[i]));
+            mu = Math.max(mu, Math.min(aktivacijaDobar, KVALITET_DOBAR[i]));
+            mu = Math.max(mu, Math.min(aktivacijaOdlican, KVALITET_ODLICAN[i]));
+            sum += mu;
+            weightedSum += X[i] * mu;
+        }
+        sums[0] = sum;
+        sums[1] = weightedSum;
+    }
+
+    public static double defuzzify(double sum, double weightedSum) {
+        return sum <= 0.0 ? DEFAULT : weightedSum / sum;
+    }
+
+    /**
+     * Samo aktivacije izlaznih terma posle ACCU, redom kao u {@link #outputTerms()},
+     * za spoljašnju defuzzifikaciju ({@link CogDefuzzifier}).
+     */
+    public static void activations(double rezija, double gluma, double scenario, double originalnost, double vizuelniEfekti, double[] activations) {
+        double rezijaOdlicna = odlicna(rezija);
+        double glumaOdlicna = odlicna(gluma);
+        double scenarioOdlicna = odlicna(scenario);
+        double originalnostOdlicna = odlicna(originalnost);
+        double glumaDobra = dobra(gluma);
+        double scenarioDobra = dobra(scenario);
+        double rezijaDobra = dobra(rezija);
+        double scenarioLosa = losa(scenario);
+        double glumaLosa = losa(gluma);
+        double rezijaLosa = losa(rezija);
+        double vizuelniEfektiOdlicna = odlicna(vizuelniEfekti);
+        double originalnostDobra = dobra(originalnost);
+
+        double aktivacijaLos = 0.0;
+        double aktivacijaSlab = 0.0;
+        double aktivacijaProsecan = 0.0;
+        double aktivacijaDobar = 0.0;
+        double aktivacijaOdlican = 0.0;
+        // RULE 1
+        aktivacijaOdlican = Math.max(aktivacijaOdlican, Math.min(Math.min(rezijaOdlicna, glumaOdlicna), scenarioOdlicna));
+        // RULE 2
+        aktivacijaOdlican = Math.max(aktivacijaOdlican, Math.min(Math.min(rezijaOdlicna, glumaOdlicna), originalnostOdlicna));
+        // RULE 3
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(Math.min(rezijaOdlicna, glumaDobra), scenarioDobra));
+        // RULE 4
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(Math.min(rezijaDobra, glumaDobra), scenarioDobra));
+        // RULE 5
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(originalnostOdlicna, rezijaOdlicna));
+        // RULE 6
+        aktivacijaSlab = Math.max(aktivacijaSlab, Math.min(scenarioLosa, glumaLosa));
+        // RULE 7
+        aktivacijaLos = Math.max(aktivacijaLos, Math.min(rezijaLosa, scenarioLosa));
+        // RULE 8
+        aktivacijaProsecan = Math.max(aktivacijaProsecan, Math.min(Math.min(rezijaDobra, glumaLosa), scenarioDobra));
+        // RULE 9
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(vizuelniEfektiOdlicna, originalnostDobra));
+        // RULE 10
+        aktivacijaLos = Math.max(aktivacijaLos, Math.min(Math.min(rezijaLosa, glumaLosa), scenarioLosa));
+        // RULE 11
+        aktivacijaProsecan = Math.max(aktivacijaProsecan, Math.min(Math.min(rezijaDobra, glumaDobra), scenarioLosa));
+        // RULE 12
+        aktivacijaDobar = Math.max(aktivacijaDobar, Math.min(glumaOdlicna, scenarioDobra));
+
+        activations[0] = aktivacijaLos;
+        activations[1] = aktivacijaSlab;
+        activations[2] = aktivacijaProsecan;
+        activations[3] = aktivacijaDobar;
+        activations[4] = aktivacijaOdlican;
+    }
+
+    /**
+     * Stepen ispunjenosti svakog pravila (AND = MIN), redom kao u {@link #ruleNames()},
+     * za objašnjenje ocene i brojanje aktiviranih pravila.
+     */
+    public static void ruleDegrees(double rezija, double gluma, double scenario, double originalnost, double vizuelniEfekti, double[] degrees) {
+        double rezijaOdlicna = odlicna(rezija);
+        double glumaOdlicna = odlicna(gluma);
+        double scenarioOdlicna = odlicna(scenario);
+        double originalnostOdlicna = odlicna(originalnost);
+        double glumaDobra = dobra(gluma);
+        double scenarioDobra = dobra(scenario);
+        double rezijaDobra = dobra(rezija);
+        double scenarioLosa = losa(scenario);
+        double glumaLosa = losa(gluma);
+        double rezijaLosa = losa(rezija);
+        double vizuelniEfektiOdlicna = odlicna(vizuelniEfekti);
+        double originalnostDobra = dobra(originalnost);
+
+        degrees[0] = Math.min(Math.min(rezijaOdlicna, glumaOdlicna), scenarioOdlicna);
+        degrees[1] = Math.min(Math.min(rezijaOdlicna, glumaOdlicna), originalnostOdlicna);
+        degrees[2] = Math.min(Math.min(rezijaOdlicna, glumaDobra), scenarioDobra);
+        degrees[3] = Math.min(Math.min(rezijaDobra, glumaDobra), scenarioDobra);
+        degrees[4] = Math.min(originalnostOdlicna, rezijaOdlicna);
+        degrees[5] = Math.min(scenarioLosa, glumaLosa);
+        degrees[6] = Math.min(rezijaLosa, scenarioLosa);
+        degrees[7] = Math.min(Math.min(rezijaDobra, glumaLosa), scenarioDobra);
+        degrees[8] = Math.min(vizuelniEfektiOdlicna, originalnostDobra);
+        degrees[9] = Math.min(Math.min(rezijaLosa, glumaLosa), scenarioLosa);
+        degrees[10] = Math.min(Math.min(rezijaDobra, glumaDobra), scenarioLosa);
+        degrees[11] = Math.min(glumaOdlicna, scenarioDobra);
+    }
+
+    /** Imena pravila redom kao u FCL-u. */
+    public static String[] ruleNames() {
+        return new String[] {"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12"};
+    }
+
+    /** Tekstovi pravila ({@code IF ... THEN ...}) redom kao u {@link #ruleNames()}. */
+    public static String[] ruleTexts() {
+        return new String[] {
+            "IF rezija IS odlicna AND gluma IS odlicna AND scenario IS odlicna THEN kvalitet IS odlican",
+            "IF rezija IS odlicna AND gluma IS odlicna AND originalnost IS odlicna THEN kvalitet IS odlican",
+            "IF rezija IS odlicna AND gluma IS dobra AND scenario IS dobra THEN kvalitet IS dobar",
+            "IF rezija IS dobra AND gluma IS dobra AND scenario IS dobra THEN kvalitet IS dobar",
+            "IF originalnost IS odlicna AND rezija IS odlicna THEN kvalitet IS dobar",
+            "IF scenario IS losa AND gluma IS losa THEN kvalitet IS slab",
+            "IF rezija IS losa AND scenario IS losa THEN kvalitet IS los",
+            "IF rezija IS dobra AND gluma IS losa AND scenario IS dobra THEN kvalitet IS prosecan",
+            "IF vizuelni_efekti IS odlicna AND originalnost IS dobra THEN kvalitet IS dobar",
+            "IF rezija IS losa AND gluma IS losa AND scenario IS losa THEN kvalitet IS los",
+            "IF rezija IS dobra AND gluma IS dobra AND scenario IS losa THEN kvalitet IS prosecan",
+            "IF gluma IS odlicna AND scenario IS dobra THEN kvalitet IS dobar"
+        };
+    }
+
+    /** Tačke COG-a. */
+    public static double[] cogPoints() {
+        return X.clone();
+    }
+
+    /** Vrednosti izlaznih terma u tačkama COG-a, po jedan niz za svaki term. */
+    public static double[][] outputTerms() {
+        return new double[][] {KVALITET_LOS.clone(), KVALITET_SLAB.clone(), KVALITET_PROSECAN.clone(), KVALITET_DOBAR.clone(), KVALITET_ODLICAN.clone()};
+    }
+
+    // (7.0, 0.0) (8.5, 1.0) (10.0, 1.0) (10.0, 1.0)
+    private static double odlicna(double x) {
+        if (x <= 7.0) {
+            return 0.0;
+        }
+        if (x <= 8.5) {
+            return 0.0 + 1.0 * ((x - 7.0) / 1.5);
+        }
+        if (x <= 10.0) {
+            return 1.0;
+        }
+        return 1.0;
+    }
+
+    // (2.5, 0.0) (4.0, 1.0) (7.0, 1.0) (8.5, 0.0)
+    private static double dobra(double x) {
+        if (x <= 2.5) {
+            return 0.0;
+        }
+        if (x <= 4.0) {
+            return 0.0 + 1.0 * ((x - 2.5) / 1.5);
+        }
+        if (x <= 7.0) {
+            return 1.0;
+        }
+        if (x <= 8.5) {
+            return 1.0 + -1.0 * ((x - 7.0) / 1.5);
+        }
+        return 0.0;
+    }
+
+    // (0.0, 1.0) (1.0, 1.0) (2.5, 0.0) (3.5, 0.0)
+    private static double losa(double x) {
+        if (x <= 0.0) {
+            return 1.0;
+        }
+        if (x <= 1.0) {
+            return 1.0;
+        }
+        if (x <= 2.5) {
+            return 1.0 + -1.0 * ((x - 1.0) / 1.5);
+        }
+        if (x <= 3.5) {
+            return 0.0;
+        }
+        return 0.0;
+    }
+
+    // (0.0, 1.0) (1.0, 1.0) (1.5, 0.0) (2.5, 0.0)
+    private static double kvalitetLos(double x) {
+        if (x <= 0.0) {
+            return 1.0;
+        }
+        if (x <= 1.0) {
+            return 1.0;
+        }
+        if (x <= 1.5) {
+            return 1.0 + -1.0 * ((x - 1.0) / 0.5);
+        }
+        if (x <= 2.5) {
+            return 0.0;
+        }
+        return 0.0;
+    }
+
+    // (1.5, 0.0) (2.5, 1.0) (3.5, 1.0) (4.5, 0.0)
+    private static double kvalitetSlab(double x) {
+        if (x <= 1.5) {
+            return 0.0;
+        }
+        if (x <= 2.5) {
+            return 0.0 + 1.0 * ((x - 1.5) / 1.0);
+        }
+        if (x <= 3.5) {
+            return 1.0;
+        }
+        if (x <= 4.5) {
+            return 1.0 + -1.0 * ((x - 3.5) / 1.0);
+        }
+        return 0.0;
+    }
+
+    // (3.5, 0.0) (4.5, 1.0) (5.5, 1.0) (6.5, 0.0)
+    private static double kvalitetProsecan(double x) {
+        if (x <= 3.5) {
+            return 0.0;
+        }
+        if (x <= 4.5) {
+            return 0.0 + 1.0 * ((x - 3.5) / 1.0);
+        }
+        if (x <= 5.5) {
+            return 1.0;
+        }
+        if (x <= 6.5) {
+            return 1.0 + -1.0 * ((x - 5.5) / 1.0);
+        }
+        return 0.0;
+    }
+
+    // (5.5, 0.0) (6.5, 1.0) (7.5, 1.0) (8.5, 0.0)
+    private static double kvalitetDobar(double x) {
+        if (x <= 5.5) {
+            return 0.0;
+        }
+        if (x <= 6.5) {
+            return 0.0 + 1.0 * ((x - 5.5) / 1.0);
+        }
+        if (x <= 7.5) {
+            return 1.0;
+        }
+        if (x <= 8.5) {
+            return 1.0 + -1.0 * ((x - 7.5) / 1.0);
+        }
+        return 0.0;
+    }
+
+    // (7.5, 0.0) (8.5, 1.0) (10.0, 1.0) (10.0, 1.0)
+    private static double kvalitetOdlican(double x) {
+        if (x <= 7.5) {
+            return 0.0;
+        }
+        if (x <= 8.5) {
+            return 0.0 + 1.0 * ((x - 7.5) / 1.0);
+        }
+        if (x <= 10.0) {
+            return 1.0;
+        }
+        return 1.0;
+    }
+
+    private static int from(double[] membership) {
+        int i = 0;
+        while (i < POINTS && membership[i] <= 0.0) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int to(double[] membership) {
+        int i = POINTS;
+        while (i > 0 && membership[i - 1] <= 0.0) {
+            i--;
+        }
+        return i;
+    }
+}
@@ -1,12 +1,16 @@
 public class FilmResult {
-    private String naslov;
-    private String godina;
-    private String trajanje;
-    private String budzet;
-    private String reziser;
-    private String zanrovi; 
+    private final String naslov;
+    private final int godina;
+    private final int trajanje;
+    private final long budzet;
+    private final String reziser;
+    private final String zanrovi; 
 
-    public FilmResult(String naslov, String godina, String trajanje, String budzet, String reziser, String zanrovi) {
+    /**
+     * Godina, trajanje (u minutima) i budžet (u USD) su {@link RdfValues#NEPOZNATO}
+     * kada vrednost ne postoji u ontologiji.
+     */
+    public FilmResult(String naslov, int godina, int trajanje, long budzet, String reziser, String zanrovi) {
         this.naslov = naslov;
         this.godina = godina;
         this.trajanje = trajanje;
@@ -16,9 +20,13 @@ public class FilmResult {
     }
     
     public String getNaslov() { return naslov; }
-    public String getGodina() { return godina; }
-    public String getTrajanje() { return trajanje; }
-    public String getBudzet() { return budzet; }
+    public int getGodina() { return godina; }
+    public int getTrajanje() { return trajanje; }
+    public long getBudzet() { return budzet; }
     public String getReziser() { return reziser; }
     public String getZanrovi() { return zanrovi; }
-}
\ No newline at end of file
+
+    public boolean hasGodina() { return godina != RdfValues.NEPOZNATO; }
+    public boolean hasTrajanje() { return trajanje != RdfValues.NEPOZNATO; }
+    public boolean hasBudzet() { return budzet != RdfValues.NEPOZNATO; }
+}
@@ -0,0 +1,59 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redovi rezultata pretrage za svaki film kataloga, redom kojim ih vraća
+ * SPARQL upit sa {@code ORDER BY}. Film dobija redni broj po prvom redu, pa
+ * indeksi žanrova i faseta čuvaju samo redne brojeve, a same redove dele
+ * iz jedne instance po učitavanju kataloga.
+ */
+public class FilmRows {
+
+    private final Map<String, Integer> ordinals;
+    private final List<List<FilmResult>> rows;
+
+    private FilmRows(Builder builder) {
+        this.ordinals = builder.ordinals;
+        this.rows = builder.rows;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /** Redni broj filma, ili -1 ako film nema nijedan red. */
+    public int ordinalOf(String filmId) {
+        Integer ordinal = ordinals.get(filmId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public List<FilmResult> getRows(int ordinal) {
+        return rows.get(ordinal);
+    }
+
+    public static class Builder {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<List<FilmResult>> rows = new ArrayList<>();
+
+        public Builder addRow(String filmId, FilmResult result) {
+            Integer ordinal = ordinals.get(filmId);
+            if (ordinal == null) {
+                ordinal = rows.size();
+                ordinals.put(filmId, ordinal);
+                rows.add(new ArrayList<>());
+            }
+            rows.get(ordinal).add(result);
+            return this;
+        }
+
+        public FilmRows build() {
+            for (int i = 0; i < rows.size(); i++) {
+                rows.set(i, Collections.unmodifiableList(rows.get(i)));
+            }
+            return new FilmRows(this);
+        }
+    }
+}
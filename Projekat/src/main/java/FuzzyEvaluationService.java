@@ -1,54 +1,398 @@
 import net.sourceforge.jFuzzyLogic.FIS;
 import net.sourceforge.jFuzzyLogic.FunctionBlock;
+import net.sourceforge.jFuzzyLogic.rule.Rule;
+import net.sourceforge.jFuzzyLogic.rule.RuleBlock;
 
-public class FuzzyEvaluationService {
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Fuzzy ocena kvaliteta filma. Podrazumevano računa generisanim
+ * {@link FilmKvalitetEvaluator}-om, a jFuzzyLogic interpreterom ako je on
+ * isključen ili ne odgovara FCL-u. Opciono se ocena čita iz unapred
+ * izračunate tabele ({@link #LOOKUP_TABLE_POINTS_PROPERTY}).
+ * <p>
+ * FCL se čita sa classpath-a ili iz fajla zadatog sa {@link #FCL_PROPERTY}.
+ * Izmene tog fajla se u pozadini parsiraju i proveravaju, pa se nova baza
+ * pravila objavljuje atomskom zamenom reference: ocena koja je u toku
+ * završava sa verzijom sa kojom je počela, a neispravna izmena se odbacuje.
+ * <p>
+ * Bezbedna za istovremene pozive iz više niti: {@link FunctionBlock} drži
+ * međustanje evaluacije, pa svaka nit dobija sopstveni primerak napravljen
+ * iz jednom učitanog FCL teksta.
+ * <p>
+ * Koja su pravila dovela do ocene pokazuje {@link #explain}. Uz
+ * {@link #INSTRUMENTATION_PROPERTY} se za svaku ocenu još broji koja su
+ * pravila aktivirana ({@link #getRuleStatistics()}).
+ * <p>
+ * Servis koji prati FCL fajl treba zatvoriti ({@link #close()}), čime se
+ * zaustavlja nit koja ga prati.
+ */
+public class FuzzyEvaluationService implements AutoCloseable {
     
-    private FIS fis;
-    private FunctionBlock functionBlock;
+    /** Nazivi kategorija kvaliteta, indeksirani kodom iz {@link BatchResult#getKategorije()}. */
+    public static final String[] KATEGORIJE = { "Loš", "Slab", "Prosečan", "Dobar", "Odličan" };
+
+    /**
+     * Putanja FCL fajla sa pravilima; ako je zadata, fajl se prati i izmene
+     * se primenjuju bez ponovnog pokretanja. Inače se koristi
+     * {@code film_fuzzy.fcl} sa classpath-a.
+     */
+    public static final String FCL_PROPERTY = "film.fuzzy.fcl";
+
+    /**
+     * Sistemsko svojstvo kojim se generisani {@link FilmKvalitetEvaluator}
+     * isključuje i ocena računa jFuzzyLogic interpreterom.
+     */
+    public static final String COMPILED_PROPERTY = "film.fuzzy.kompajlirano";
+
+    /**
+     * Broj čvorova po osi tabele unapred izračunatih ocena ({@link FuzzyLookupTable});
+     * 0 (podrazumevano) isključuje tabelu i svaka ocena se računa tačno.
+     */
+    public static final String LOOKUP_TABLE_POINTS_PROPERTY = "film.fuzzy.tabela.tacke";
+
+    /** Fajl u koji se tabela upisuje i iz kog se mapira pri sledećem pokretanju. */
+    public static final String LOOKUP_TABLE_FILE_PROPERTY = "film.fuzzy.tabela.fajl";
+
+    /**
+     * Sistemsko svojstvo kojim se isključuje vektorska COG defuzzifikacija
+     * ({@link CogDefuzzifier}); ona se koristi samo uz generisani evaluator,
+     * u build-u {@code benchmark} profila i ako je JVM pokrenut sa
+     * {@code --add-modules jdk.incubator.vector}.
+     */
+    public static final String VECTOR_COG_PROPERTY = "film.fuzzy.vektorski";
+
+    /**
+     * Sistemsko svojstvo kojim se uključuje brojanje aktiviranih pravila
+     * ({@link RuleFiringStatistics}); podrazumevano je isključeno.
+     */
+    public static final String INSTRUMENTATION_PROPERTY = "film.fuzzy.instrumentacija";
+
+    private static final String FUNCTION_BLOCK_NAME = "film_kvalitet";
+
+    private static final String[] INPUT_VARIABLES = { "rezija", "gluma", "scenario", "originalnost", "vizuelni_efekti" };
+
+    private static final String OUTPUT_VARIABLE = "kvalitet";
+
+    private static final int BATCH_BLOCK_SIZE = 1024;
+
+    private static final String FCL_RESOURCE = "film_fuzzy.fcl";
+
+    // Editori često upisuju fajl u više koraka, pa se posle prve izmene malo sačeka
+    private static final long RELOAD_DELAY_MS = 200;
+
+    private final String fclLocation;
+    private final boolean compiledEnabled;
+    private final boolean instrumented;
+    private final boolean vectorEnabled;
+    private final AtomicReference<RuleBase> ruleBase = new AtomicReference<>();
+    // Tabela zavisi samo od generisanog evaluatora, pa je dele sve baze pravila koje ga koriste
+    private FuzzyLookupTable lookupTable;
+    private boolean lookupTableCreated;
+    private volatile WatchService watchService;
     
     public FuzzyEvaluationService() {
+        this.fclLocation = System.getProperty(FCL_PROPERTY, FCL_RESOURCE);
+        this.compiledEnabled = Boolean.parseBoolean(System.getProperty(COMPILED_PROPERTY, "true"));
+        this.instrumented = Boolean.parseBoolean(System.getProperty(INSTRUMENTATION_PROPERTY, "false"));
+        this.vectorEnabled = Boolean.parseBoolean(System.getProperty(VECTOR_COG_PROPERTY, "true"));
         initializeFuzzySystem();
+        if (System.getProperty(FCL_PROPERTY) != null) {
+            watchFclFile(Path.of(fclLocation));
+        }
+    }
+
+    /**
+     * Zaustavlja praćenje FCL fajla, ako je uključeno; ocenjivanje i dalje
+     * radi sa poslednjom učitanom bazom pravila.
+     */
+    @Override
+    public void close() {
+        WatchService service = watchService;
+        watchService = null;
+        if (service != null) {
+            try {
+                // Nit koja prati fajl tada dobija ClosedWatchServiceException i završava
+                service.close();
+            } catch (IOException e) {
+                System.err.println("Greška pri zatvaranju praćenja FCL fajla: " + e.getMessage());
+            }
+        }
+    }
+
+    // Pravi se pri prvoj bazi pravila koja koristi generisani evaluator
+    private synchronized FuzzyLookupTable compiledLookupTable() {
+        if (!lookupTableCreated) {
+            lookupTable = createLookupTable();
+            lookupTableCreated = true;
+        }
+        return lookupTable;
+    }
+
+    private FuzzyLookupTable createLookupTable() {
+        int points = Integer.getInteger(LOOKUP_TABLE_POINTS_PROPERTY, 0);
+        if (points <= 0) {
+            return null;
+        }
+        String file = System.getProperty(LOOKUP_TABLE_FILE_PROPERTY);
+        long start = System.currentTimeMillis();
+        FuzzyLookupTable table = FuzzyLookupTable.create(points, file != null ? Path.of(file) : null);
+        System.out.printf("Tabela fuzzy ocena: %d^5 tačaka (%.1f MB) za %d ms, greška najviše %.4f, u 99%% ocena do %.4f%n",
+                          points, table.getSizeBytes() / (1024.0 * 1024.0), System.currentTimeMillis() - start,
+                          table.getMaxError(), table.getP99Error());
+        return table;
+    }
+
+    /** Da li trenutna baza pravila koristi generisani evaluator. */
+    public boolean isCompiled() {
+        return ruleBase.get().compiled;
+    }
+
+    public boolean isVectorized() {
+        return ruleBase.get().vectorCog != null;
+    }
+
+    /**
+     * Tabela kojom se ocene aproksimiraju, sa izmerenom najvećom greškom,
+     * ili {@code null} ako se ocene računaju tačno. Tabela je izračunata
+     * generisanim evaluatorom, pa je trenutna baza pravila koristi samo dok
+     * FCL odgovara njemu.
+     */
+    public FuzzyLookupTable getLookupTable() {
+        return ruleBase.get().lookupTable;
+    }
+
+    /**
+     * Brojači aktiviranja pravila, ili {@code null} ako instrumentacija nije
+     * uključena. Vezani su za trenutnu bazu pravila, pa posle ponovnog
+     * učitavanja FCL-a brojanje kreće od nule.
+     */
+    public RuleFiringStatistics getRuleStatistics() {
+        return ruleBase.get().statistics;
+    }
+
+    private String readFclSource() {
+        try (InputStream in = CatalogResources.open(fclLocation)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Greška pri učitavanju FCL fajla: " + fclLocation);
+        }
     }
 
     private void initializeFuzzySystem() {
         try {
-            String fclFile = "src/main/resources/film_fuzzy.fcl";
-            fis = FIS.load(fclFile, true);
+            // Parsira se odmah da bi greška u FCL-u izašla pri pokretanju, a ne pri prvoj oceni
+            String fclSource = readFclSource();
+            FunctionBlock functionBlock = parseAndValidate(fclSource);
+            RuleBase initial = createRuleBase(fclSource, functionBlock);
+            initial.functionBlocks.set(functionBlock);
+            ruleBase.set(initial);
             
-            if (fis == null) {
-                throw new RuntimeException("Greška pri učitavanju FCL fajla: " + fclFile);
+        } catch (Exception e) {
+            throw new RuntimeException("Greška pri inicijalizaciji fuzzy sistema: " + e.getMessage());
+        }
+    }
+
+    private RuleBase createRuleBase(String fclSource, FunctionBlock functionBlock) {
+        boolean compiled = false;
+        // Generisana klasa važi samo za FCL iz kog je prevedena
+        if (compiledEnabled) {
+            compiled = FilmKvalitetEvaluator.FCL_FINGERPRINT.equals(FclCompiler.fingerprint(fclSource));
+            if (!compiled) {
+                System.err.println("FCL se razlikuje od onog iz kog je generisana FilmKvalitetEvaluator klasa, "
+                                   + "koristi se interpreter (ponovo pokrenuti FclCompiler)");
             }
+        }
+        CogDefuzzifier vectorCog = compiled && vectorEnabled ? CogDefuzzifier.vector() : null;
+        // Imena i tekstovi istim redom kojim se čitaju stepeni pravila
+        String[] ruleNames;
+        String[] ruleTexts;
+        if (compiled) {
+            ruleNames = FilmKvalitetEvaluator.ruleNames();
+            ruleTexts = FilmKvalitetEvaluator.ruleTexts();
+        } else {
+            List<String> names = new ArrayList<>();
+            List<String> texts = new ArrayList<>();
+            for (RuleBlock ruleBlock : functionBlock.getRuleBlocks().values()) {
+                for (Rule rule : ruleBlock.getRules()) {
+                    names.add(rule.getName());
+                    texts.add(ruleText(rule));
+                }
+            }
+            ruleNames = names.toArray(new String[0]);
+            ruleTexts = texts.toArray(new String[0]);
+        }
+        return new RuleBase(fclSource, compiled, instrumented, vectorCog, compiled ? compiledLookupTable() : null,
+                            ruleNames, ruleTexts);
+    }
 
-            functionBlock = fis.getFunctionBlock("film_kvalitet");
-            
-            if (functionBlock == null) {
-                throw new RuntimeException("Function block 'film_kvalitet' nije pronađen u FCL fajlu");
+    private static String ruleText(Rule rule) {
+        String posledice = rule.getConsequents().stream()
+                               .map(String::valueOf)
+                               .collect(Collectors.joining(", "));
+        return ("IF " + rule.getAntecedents() + " THEN " + posledice).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Ponovo čita FCL i, ako je izmenjen i ispravan, objavljuje novu bazu
+     * pravila. Vraća {@code true} ako je nova baza objavljena; neispravan FCL
+     * ili greška pri pravljenju nove baze (npr. tabele ocena) ostavlja
+     * prethodnu bazu i prijavljuje grešku.
+     */
+    public boolean reloadRules() {
+        RuleBase current = ruleBase.get();
+        RuleBase next;
+        try {
+            String fclSource = readFclSource();
+            if (fclSource.equals(current.fclSource)) {
+                return false;
             }
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Greška pri inicijalizaciji fuzzy sistema: " + e.getMessage());
+            next = createRuleBase(fclSource, parseAndValidate(fclSource));
+        } catch (RuntimeException e) {
+            System.err.println("Izmenjena fuzzy pravila nisu učitana, ostaju prethodna: " + e.getMessage());
+            return false;
+        }
+        // Ako je u međuvremenu objavljena druga verzija, ona ostaje
+        boolean swapped = ruleBase.compareAndSet(current, next);
+        if (swapped) {
+            System.out.println("Fuzzy pravila ponovo učitana iz " + fclLocation);
+        }
+        return swapped;
+    }
+
+    private void watchFclFile(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        Path fileName = file.getFileName();
+        WatchService watchService;
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.err.println("Praćenje FCL fajla nije moguće, izmene zahtevaju ponovno pokretanje: " + e.getMessage());
+            return;
+        }
+        this.watchService = watchService;
+
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= fileName.equals(event.context());
+                    }
+                    key.reset();
+                    if (changed) {
+                        Thread.sleep(RELOAD_DELAY_MS);
+                        try {
+                            reloadRules();
+                        } catch (RuntimeException e) {
+                            // Nit mora preživeti grešku, inače se kasnije izmene više ne bi učitale
+                            System.err.println("Greška pri ponovnom učitavanju fuzzy pravila: " + e.getMessage());
+                        }
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "fcl-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    // Parsira FCL i proverava da ima sve promenljive i da se može oceniti
+    private static FunctionBlock parseAndValidate(String fclSource) {
+        FunctionBlock functionBlock = parseFunctionBlock(fclSource);
+        for (String variable : INPUT_VARIABLES) {
+            if (functionBlock.getVariable(variable) == null) {
+                throw new RuntimeException("FCL nema ulaznu promenljivu '" + variable + "'");
+            }
+            functionBlock.setVariable(variable, 5.5);
+        }
+        if (functionBlock.getVariable(OUTPUT_VARIABLE) == null) {
+            throw new RuntimeException("FCL nema izlaznu promenljivu '" + OUTPUT_VARIABLE + "'");
+        }
+        if (functionBlock.getRuleBlocks().values().stream().allMatch(ruleBlock -> ruleBlock.getRules().isEmpty())) {
+            throw new RuntimeException("FCL nema nijedno pravilo");
+        }
+        functionBlock.evaluate();
+        double value = functionBlock.getVariable(OUTPUT_VARIABLE).getValue();
+        if (Double.isNaN(value)) {
+            throw new RuntimeException("FCL daje neispravnu ocenu za probne ulaze");
+        }
+        return functionBlock;
+    }
+
+    private static FunctionBlock parseFunctionBlock(String fclSource) {
+        FIS fis = FIS.createFromString(fclSource, true);
+        if (fis == null) {
+            throw new RuntimeException("Greška pri parsiranju FCL definicije");
+        }
+
+        FunctionBlock functionBlock = fis.getFunctionBlock(FUNCTION_BLOCK_NAME);
+        if (functionBlock == null) {
+            throw new RuntimeException("Function block '" + FUNCTION_BLOCK_NAME + "' nije pronađen u FCL fajlu");
+        }
+        return functionBlock;
+    }
+
+    /**
+     * Jedna verzija baze pravila i sve što je iz nje izvedeno, uključujući
+     * ubrzanja generisanog evaluatora. Ne menja se posle objavljivanja, a
+     * ocena je uzima jednom i sa njom radi do kraja.
+     */
+    private static final class RuleBase {
+        final String fclSource;
+        final boolean compiled;
+        // Samo uz generisani evaluator
+        final CogDefuzzifier vectorCog;
+        final ThreadLocal<double[]> activations;
+        final FuzzyLookupTable lookupTable;
+        // jFuzzyLogic nema kopiranje FunctionBlock-a, pa se po niti parsira keširani tekst
+        final ThreadLocal<FunctionBlock> functionBlocks;
+        // Imena i tekstovi pravila redom kao njihovi stepeni
+        final String[] ruleNames;
+        final String[] ruleTexts;
+        final RuleFiringStatistics statistics;
+        final ThreadLocal<double[]> ruleDegrees;
+
+        RuleBase(String fclSource, boolean compiled, boolean instrumented,
+                 CogDefuzzifier vectorCog, FuzzyLookupTable lookupTable,
+                 String[] ruleNames, String[] ruleTexts) {
+            this.fclSource = fclSource;
+            this.compiled = compiled;
+            this.vectorCog = vectorCog;
+            this.activations = vectorCog != null ? ThreadLocal.withInitial(() -> new double[vectorCog.getTermCount()]) : null;
+            this.lookupTable = lookupTable;
+            this.functionBlocks = ThreadLocal.withInitial(() -> parseFunctionBlock(fclSource));
+            this.ruleNames = ruleNames;
+            this.ruleTexts = ruleTexts;
+            this.statistics = instrumented ? new RuleFiringStatistics(ruleNames, ruleTexts) : null;
+            this.ruleDegrees = ThreadLocal.withInitial(() -> new double[ruleNames.length]);
         }
     }
     
     public FuzzyResult evaluateFilm(double rezija, double gluma, double scenario, 
                                   double originalnost, double vizuelniEfekti) {
         
-        validateInput(rezija, "Režija");
-        validateInput(gluma, "Gluma");
-        validateInput(scenario, "Scenario");
-        validateInput(originalnost, "Originalnost");
-        validateInput(vizuelniEfekti, "Vizuelni efekti");
+        validateInputs(rezija, gluma, scenario, originalnost, vizuelniEfekti);
         
         try {
-            functionBlock.setVariable("rezija", rezija);
-            functionBlock.setVariable("gluma", gluma);
-            functionBlock.setVariable("scenario", scenario);
-            functionBlock.setVariable("originalnost", originalnost);
-            functionBlock.setVariable("vizuelni_efekti", vizuelniEfekti);
-            
-            functionBlock.evaluate();
-            
-            double kvalitetVrednost = functionBlock.getVariable("kvalitet").getValue();
+            double kvalitetVrednost = infer(ruleBase.get(), rezija, gluma, scenario, originalnost, vizuelniEfekti);
             
             String kategorijaKvaliteta = mapToQualityCategory(kvalitetVrednost);
             
@@ -59,6 +403,118 @@ public class FuzzyEvaluationService {
         }
     }
 
+    /**
+     * Ocena zajedno sa stepenom svakog pravila, za prikaz zašto je film
+     * dobio baš tu ocenu. Radi i bez uključene instrumentacije. Ocena se
+     * uvek računa tačno, i kad je uključena tabela
+     * ({@link #LOOKUP_TABLE_POINTS_PROPERTY}), da bi odgovarala prikazanim
+     * stepenima pravila.
+     */
+    public FuzzyExplanation explain(double rezija, double gluma, double scenario,
+                                    double originalnost, double vizuelniEfekti) {
+        validateInputs(rezija, gluma, scenario, originalnost, vizuelniEfekti);
+
+        // Ocena i stepeni pravila iz iste verzije baze pravila
+        RuleBase rules = ruleBase.get();
+        double[] degrees = new double[rules.ruleNames.length];
+        double kvalitetVrednost;
+        try {
+            kvalitetVrednost = computeExact(rules, rezija, gluma, scenario, originalnost, vizuelniEfekti);
+            if (rules.compiled) {
+                FilmKvalitetEvaluator.ruleDegrees(rezija, gluma, scenario, originalnost, vizuelniEfekti, degrees);
+            } else {
+                // Interpreter je upravo ocenio isti FunctionBlock u ovoj niti
+                readRuleDegrees(rules.functionBlocks.get(), degrees);
+            }
+            if (rules.statistics != null) {
+                rules.statistics.record(degrees);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Greška pri fuzzy evaluaciji: " + e.getMessage());
+        }
+        FuzzyResult result = new FuzzyResult(kvalitetVrednost, mapToQualityCategory(kvalitetVrednost));
+
+        List<RuleActivation> activations = new ArrayList<>(degrees.length);
+        for (int i = 0; i < degrees.length; i++) {
+            activations.add(new RuleActivation(rules.ruleNames[i], rules.ruleTexts[i], degrees[i]));
+        }
+        return new FuzzyExplanation(result, activations);
+    }
+
+    private double infer(RuleBase rules, double rezija, double gluma, double scenario,
+                         double originalnost, double vizuelniEfekti) {
+        if (rules.statistics == null) {
+            return compute(rules, rezija, gluma, scenario, originalnost, vizuelniEfekti);
+        }
+        double value = compute(rules, rezija, gluma, scenario, originalnost, vizuelniEfekti);
+        double[] degrees = rules.ruleDegrees.get();
+        if (rules.compiled) {
+            FilmKvalitetEvaluator.ruleDegrees(rezija, gluma, scenario, originalnost, vizuelniEfekti, degrees);
+        } else {
+            // Interpreter je upravo ocenio isti FunctionBlock u ovoj niti
+            readRuleDegrees(rules.functionBlocks.get(), degrees);
+        }
+        rules.statistics.record(degrees);
+        return value;
+    }
+
+    private double compute(RuleBase rules, double rezija, double gluma, double scenario,
+                           double originalnost, double vizuelniEfekti) {
+        if (rules.lookupTable != null) {
+            return rules.lookupTable.lookup(rezija, gluma, scenario, originalnost, vizuelniEfekti);
+        }
+        return computeExact(rules, rezija, gluma, scenario, originalnost, vizuelniEfekti);
+    }
+
+    // Ocena bez tabele, zaključivanjem po pravilima
+    private double computeExact(RuleBase rules, double rezija, double gluma, double scenario,
+                                double originalnost, double vizuelniEfekti) {
+        if (rules.vectorCog != null) {
+            double[] aktivacije = rules.activations.get();
+            FilmKvalitetEvaluator.activations(rezija, gluma, scenario, originalnost, vizuelniEfekti, aktivacije);
+            return rules.vectorCog.defuzzify(aktivacije);
+        }
+        if (rules.compiled) {
+            return FilmKvalitetEvaluator.evaluate(rezija, gluma, scenario, originalnost, vizuelniEfekti);
+        }
+        return interpret(rules, rezija, gluma, scenario, originalnost, vizuelniEfekti);
+    }
+
+    private double interpret(RuleBase rules, double rezija, double gluma, double scenario,
+                             double originalnost, double vizuelniEfekti) {
+        FunctionBlock functionBlock = rules.functionBlocks.get();
+        functionBlock.setVariable("rezija", rezija);
+        functionBlock.setVariable("gluma", gluma);
+        functionBlock.setVariable("scenario", scenario);
+        functionBlock.setVariable("originalnost", originalnost);
+        functionBlock.setVariable("vizuelni_efekti", vizuelniEfekti);
+
+        functionBlock.evaluate();
+
+        return functionBlock.getVariable(OUTPUT_VARIABLE).getValue();
+    }
+
+    // Stepeni pravila iz poslednje evaluacije, redom kao u FCL-u
+    private static void readRuleDegrees(FunctionBlock functionBlock, double[] degrees) {
+        int i = 0;
+        for (RuleBlock ruleBlock : functionBlock.getRuleBlocks().values()) {
+            for (Rule rule : ruleBlock.getRules()) {
+                if (i < degrees.length) {
+                    degrees[i++] = rule.getDegreeOfSupport();
+                }
+            }
+        }
+    }
+
+    private void validateInputs(double rezija, double gluma, double scenario,
+                                double originalnost, double vizuelniEfekti) {
+        validateInput(rezija, "Režija");
+        validateInput(gluma, "Gluma");
+        validateInput(scenario, "Scenario");
+        validateInput(originalnost, "Originalnost");
+        validateInput(vizuelniEfekti, "Vizuelni efekti");
+    }
+
     private void validateInput(double value, String parameterName) {
         if (value < 1.0 || value > 10.0) {
             throw new IllegalArgumentException(
@@ -66,17 +522,146 @@ public class FuzzyEvaluationService {
         }
     }
 
+    /**
+     * Ocenjuje ceo niz filmova odjednom. Kriterijumi se prosleđuju kao kolone
+     * (element {@code i} svakog niza pripada filmu {@code i}), a rezultat su
+     * primitivni nizovi vrednosti kvaliteta i kodova kategorija (indeksi u
+     * {@link #KATEGORIJE}), bez {@link FuzzyResult} objekta po filmu.
+     * Posao se deli na blokove koji se izvršavaju paralelno.
+     */
+    public BatchResult evaluateBatch(double[] rezija, double[] gluma, double[] scenario,
+                                     double[] originalnost, double[] vizuelniEfekti) {
+        double[] kvalitet = new double[rezija.length];
+        byte[] kategorije = new byte[rezija.length];
+        evaluateBatch(rezija, gluma, scenario, originalnost, vizuelniEfekti, kvalitet, kategorije);
+        return new BatchResult(kvalitet, kategorije);
+    }
+
+    /**
+     * Isto kao {@link #evaluateBatch(double[], double[], double[], double[], double[])},
+     * ali upisuje u nizove koje obezbeđuje pozivalac, npr. da bi se ponovo
+     * koristili između uzastopnih ocenjivanja.
+     */
+    public void evaluateBatch(double[] rezija, double[] gluma, double[] scenario,
+                              double[] originalnost, double[] vizuelniEfekti,
+                              double[] kvalitet, byte[] kategorije) {
+        int n = rezija.length;
+        if (gluma.length != n || scenario.length != n || originalnost.length != n
+                || vizuelniEfekti.length != n || kvalitet.length < n || kategorije.length < n) {
+            throw new IllegalArgumentException("Svi nizovi kriterijuma moraju imati istu dužinu (" + n + ")");
+        }
+
+        validateColumn(rezija, "Režija");
+        validateColumn(gluma, "Gluma");
+        validateColumn(scenario, "Scenario");
+        validateColumn(originalnost, "Originalnost");
+        validateColumn(vizuelniEfekti, "Vizuelni efekti");
+
+        int brojBlokova = (n + BATCH_BLOCK_SIZE - 1) / BATCH_BLOCK_SIZE;
+        // Ceo niz se ocenjuje istom verzijom pravila
+        RuleBase rules = ruleBase.get();
+        try {
+            IntStream.range(0, brojBlokova).parallel().forEach(blok -> {
+                int kraj = Math.min(n, (blok + 1) * BATCH_BLOCK_SIZE);
+                for (int i = blok * BATCH_BLOCK_SIZE; i < kraj; i++) {
+                    double vrednost = infer(rules, rezija[i], gluma[i], scenario[i], originalnost[i], vizuelniEfekti[i]);
+                    kvalitet[i] = vrednost;
+                    kategorije[i] = qualityCategoryCode(vrednost);
+                }
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Greška pri fuzzy evaluaciji: " + e.getMessage());
+        }
+    }
+
+    private void validateColumn(double[] values, String parameterName) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] < 1.0 || values[i] > 10.0) {
+                validateInput(values[i], parameterName + " [" + i + "]");
+            }
+        }
+    }
+
     private String mapToQualityCategory(double value) {
+        return KATEGORIJE[qualityCategoryCode(value)];
+    }
+
+    private static byte qualityCategoryCode(double value) {
         if (value <= 2.0) {
-            return "Loš";
+            return 0;
         } else if (value <= 4.0) {
-            return "Slab";
+            return 1;
         } else if (value <= 6.0) {
-            return "Prosečan";
+            return 2;
         } else if (value <= 8.0) {
-            return "Dobar";
+            return 3;
         } else {
-            return "Odličan";
+            return 4;
+        }
+    }
+
+    public static class BatchResult {
+        private final double[] kvalitet;
+        private final byte[] kategorije;
+
+        public BatchResult(double[] kvalitet, byte[] kategorije) {
+            this.kvalitet = kvalitet;
+            this.kategorije = kategorije;
+        }
+
+        public double[] getKvalitet() { return kvalitet; }
+        public byte[] getKategorije() { return kategorije; }
+        public int size() { return kvalitet.length; }
+
+        public String getKategorija(int i) {
+            return KATEGORIJE[kategorije[i]];
+        }
+    }
+
+    public static class RuleActivation {
+        private final String name;
+        private final String text;
+        private final double degree;
+
+        public RuleActivation(String name, String text, double degree) {
+            this.name = name;
+            this.text = text;
+            this.degree = degree;
+        }
+
+        public String getName() { return name; }
+        public String getText() { return text; }
+        public double getDegree() { return degree; }
+        public boolean isFired() { return degree > 0.0; }
+
+        @Override
+        public String toString() {
+            return String.format("RULE %s (%.2f): %s", name, degree, text);
+        }
+    }
+
+    public static class FuzzyExplanation {
+        private final FuzzyResult result;
+        private final List<RuleActivation> activations;
+
+        public FuzzyExplanation(FuzzyResult result, List<RuleActivation> activations) {
+            this.result = result;
+            this.activations = activations;
+        }
+
+        public FuzzyResult getResult() { return result; }
+        public List<RuleActivation> getActivations() { return activations; }
+
+        /** Aktivirana pravila, od najjačeg ka najslabijem. */
+        public List<RuleActivation> getFiredRules() {
+            List<RuleActivation> fired = new ArrayList<>();
+            for (RuleActivation activation : activations) {
+                if (activation.isFired()) {
+                    fired.add(activation);
+                }
+            }
+            fired.sort((a, b) -> Double.compare(b.getDegree(), a.getDegree()));
+            return fired;
         }
     }
 
@@ -88,6 +673,9 @@ public class FuzzyEvaluationService {
             this.numericValue = numericValue;
             this.category = category;
         }
+
+        public double getNumericValue() { return numericValue; }
+        public String getCategory() { return category; }
  
         public String getFormattedResult() {
             return String.format("%s (%.1f/10)", category, numericValue);
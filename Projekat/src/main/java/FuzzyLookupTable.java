@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Unapred izračunata tabela fuzzy ocena na pravilnoj mreži nad [1, 10]^5,
+ * sa multilinearnom interpolacijom između čvorova. Vrednosti su van heap-a:
+ * u direktnom baferu ili, ako je zadat fajl, u memorijski mapiranom fajlu
+ * koji se pri sledećem pokretanju samo mapira, bez ponovnog računanja.
+ * <p>
+ * Ne interpolira se sama ocena, već oba COG zbira iz
+ * {@link FilmKvalitetEvaluator#cogSums}, koji su neprekidni, pa se ocena
+ * dobija njihovim količnikom. Ocena ipak skače na podrazumevanu vrednost
+ * tamo gde nijedno pravilo ne važi, pa je najveća greška uz tu granicu
+ * mnogo veća od tipične; obe se mere na slučajnom uzorku pri pravljenju i
+ * čuvaju u zaglavlju fajla. Sa 19 tačaka po osi (korak 0.5) mreža sadrži
+ * sve prelomne tačke funkcija pripadnosti.
+ */
+public class FuzzyLookupTable {
+
+    private static final int DIMENSIONS = 5;
+    private static final double MIN = 1.0;
+    private static final double MAX = 10.0;
+
+    private static final int MAGIC = 0x46544142;
+    private static final int VERSION = 1;
+    // magic, verzija, broj tačaka, najveća greška, greška 99. percentila, otisak FCL-a (64 hex znaka)
+    private static final int HEADER_BYTES = 128;
+    private static final int FINGERPRINT_OFFSET = 32;
+
+    private static final int ERROR_SAMPLES = 20_000;
+
+    private final int points;
+    private final double step;
+    private final double scale;
+    private final int stride0;
+    private final int stride1;
+    private final int stride2;
+    private final int stride3;
+    // Po čvoru dva broja jedan do drugog: zbir i težinski zbir
+    private final FloatBuffer sums;
+    private final double maxError;
+    private final double p99Error;
+
+    private FuzzyLookupTable(int points, FloatBuffer sums, double maxError, double p99Error) {
+        this.points = points;
+        this.step = (MAX - MIN) / (points - 1);
+        this.scale = (points - 1) / (MAX - MIN);
+        this.stride3 = 2 * points;
+        this.stride2 = stride3 * points;
+        this.stride1 = stride2 * points;
+        this.stride0 = stride1 * points;
+        this.sums = sums;
+        this.maxError = maxError;
+        this.p99Error = p99Error;
+    }
+
+    /**
+     * Pravi tabelu sa {@code points} čvorova po osi. Ako je {@code file} zadat
+     * i sadrži tabelu za isti broj tačaka i isti FCL, samo se mapira; inače se
+     * tabela izračuna i upiše u njega.
+     */
+    public static FuzzyLookupTable create(int points, Path file) {
+        if (points < 2) {
+            throw new IllegalArgumentException("Tabela mora imati bar 2 tačke po osi, a zadato je: " + points);
+        }
+        long dataBytes = (long) Math.pow(points, DIMENSIONS) * 2 * Float.BYTES;
+        if (dataBytes > Integer.MAX_VALUE - HEADER_BYTES) {
+            throw new IllegalArgumentException("Tabela sa " + points + " tačaka po osi je prevelika");
+        }
+        try {
+            if (file == null) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect((int) dataBytes).order(ByteOrder.nativeOrder());
+                return fill(points, buffer.asFloatBuffer());
+            }
+            FuzzyLookupTable existing = open(file, points, dataBytes);
+            return existing != null ? existing : write(file, points, dataBytes);
+        } catch (IOException e) {
+            throw new RuntimeException("Greška pri radu sa tabelom fuzzy ocena " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static FuzzyLookupTable open(Path file, int points, long dataBytes) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + dataBytes) {
+                return null;
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] stored = new byte[FilmKvalitetEvaluator.FCL_FINGERPRINT.length()];
+            header.get(FINGERPRINT_OFFSET, stored);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != points
+                    || !FilmKvalitetEvaluator.FCL_FINGERPRINT.equals(new String(stored, StandardCharsets.US_ASCII))) {
+                return null;
+            }
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, dataBytes)
+                                     .order(ByteOrder.LITTLE_ENDIAN);
+            return new FuzzyLookupTable(points, data.asFloatBuffer(), header.getDouble(16), header.getDouble(24));
+        }
+    }
+
+    /**
+     * Računa tabelu u privremeni fajl koji zatim zamenjuje {@code file}, kao
+     * {@link CbrNeighborGraph}, pa prekinuto pravljenje nikad ne ostavlja
+     * fajl sa ispravnim zaglavljem i nedovršenim podacima.
+     */
+    private static FuzzyLookupTable write(Path file, int points, long dataBytes) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        FuzzyLookupTable table;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES, dataBytes);
+            table = fill(points, data.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer());
+            // FileChannel.force ne mora upisati izmene mapiranog bafera
+            data.force();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, points)
+                  .putDouble(16, table.maxError).putDouble(24, table.p99Error)
+                  .put(FINGERPRINT_OFFSET, FilmKvalitetEvaluator.FCL_FINGERPRINT.getBytes(StandardCharsets.US_ASCII));
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, dataBytes)
+                                     .order(ByteOrder.LITTLE_ENDIAN);
+            return new FuzzyLookupTable(points, data.asFloatBuffer(), table.maxError, table.p99Error);
+        }
+    }
+
+    private static FuzzyLookupTable fill(int points, FloatBuffer sums) {
+        FuzzyLookupTable table = new FuzzyLookupTable(points, sums, Double.NaN, Double.NaN);
+        int slice = table.stride0;
+        IntStream.range(0, points).parallel().forEach(i0 -> {
+            float[] row = new float[slice];
+            double[] node = new double[2];
+            int k = 0;
+            for (int i1 = 0; i1 < points; i1++) {
+                for (int i2 = 0; i2 < points; i2++) {
+                    for (int i3 = 0; i3 < points; i3++) {
+                        for (int i4 = 0; i4 < points; i4++) {
+                            FilmKvalitetEvaluator.cogSums(table.node(i0), table.node(i1), table.node(i2),
+                                                          table.node(i3), table.node(i4), node);
+                            row[k++] = (float) node[0];
+                            row[k++] = (float) node[1];
+                        }
+                    }
+                }
+            }
+            sums.duplicate().put(i0 * slice, row);
+        });
+
+        double[] errors = new double[ERROR_SAMPLES];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < ERROR_SAMPLES; i++) {
+            double r = sample(random);
+            double g = sample(random);
+            double s = sample(random);
+            double o = sample(random);
+            double v = sample(random);
+            errors[i] = Math.abs(table.lookup(r, g, s, o, v) - FilmKvalitetEvaluator.evaluate(r, g, s, o, v));
+        }
+        Arrays.sort(errors);
+        return new FuzzyLookupTable(points, sums, errors[ERROR_SAMPLES - 1], errors[ERROR_SAMPLES * 99 / 100]);
+    }
+
+    private static double sample(SplittableRandom random) {
+        return MIN + random.nextDouble() * (MAX - MIN);
+    }
+
+    private double node(int i) {
+        return i == points - 1 ? MAX : MIN + i * step;
+    }
+
+    /**
+     * Interpolirana ocena; ulazi moraju biti u [1, 10].
+     */
+    public double lookup(double rezija, double gluma, double scenario, double originalnost, double vizuelniEfekti) {
+        double x0 = (rezija - MIN) * scale;
+        double x1 = (gluma - MIN) * scale;
+        double x2 = (scenario - MIN) * scale;
+        double x3 = (originalnost - MIN) * scale;
+        double x4 = (vizuelniEfekti - MIN) * scale;
+        int i0 = cell(x0);
+        int i1 = cell(x1);
+        int i2 = cell(x2);
+        int i3 = cell(x3);
+        int i4 = cell(x4);
+        double t0 = x0 - i0;
+        double t1 = x1 - i1;
+        double t2 = x2 - i2;
+        double t3 = x3 - i3;
+        double t4 = x4 - i4;
+        int base = i0 * stride0 + i1 * stride1 + i2 * stride2 + i3 * stride3 + 2 * i4;
+        double sum = lerp(t0, cube4(base, t1, t2, t3, t4), cube4(base + stride0, t1, t2, t3, t4));
+        double weightedSum = lerp(t0, cube4(base + 1, t1, t2, t3, t4), cube4(base + 1 + stride0, t1, t2, t3, t4));
+        return FilmKvalitetEvaluator.defuzzify(sum, weightedSum);
+    }
+
+    // Koordinata u jedinicama koraka mreže -> indeks donjeg čvora ćelije
+    private int cell(double scaled) {
+        return Math.min((int) scaled, points - 2);
+    }
+
+    private double cube4(int base, double t1, double t2, double t3, double t4) {
+        return lerp(t1, cube3(base, t2, t3, t4), cube3(base + stride1, t2, t3, t4));
+    }
+
+    private double cube3(int base, double t2, double t3, double t4) {
+        return lerp(t2, square(base, t3, t4), square(base + stride2, t3, t4));
+    }
+
+    private double square(int base, double t3, double t4) {
+        return lerp(t3, edge(base, t4), edge(base + stride3, t4));
+    }
+
+    private double edge(int base, double t4) {
+        return lerp(t4, sums.get(base), sums.get(base + 2));
+    }
+
+    private static double lerp(double t, double a, double b) {
+        return a + t * (b - a);
+    }
+
+    public int getPoints() { return points; }
+    public double getMaxError() { return maxError; }
+    public double getP99Error() { return p99Error; }
+    public long getSizeBytes() { return (long) sums.capacity() * Float.BYTES; }
+}
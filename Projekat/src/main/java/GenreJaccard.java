@@ -0,0 +1,67 @@
+import ucm.gaia.jcolibri.exception.NoApplicableSimilarityFunctionException;
+import ucm.gaia.jcolibri.method.retrieve.NNretrieval.similarity.LocalSimilarityFunction;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Sličnost skupova žanrova zapisanih kao jedan string, odvojenih sa
+ * {@link #SEPARATOR}: broj zajedničkih žanrova podeljen brojem žanrova u
+ * bar jednom od filmova (Jaccard). Redosled žanrova ne utiče na ocenu, pa
+ * su "SciFi|Action" i "Action|SciFi" potpuno slični. Kao {@code Equal}, daje
+ * 0 ako bilo koja vrednost nedostaje.
+ * <p>
+ * {@link ColumnarCaseBase} istu sličnost računa nad bitovima žanrova, istim
+ * deljenjem, pa su ocene bit za bit iste.
+ */
+public class GenreJaccard implements LocalSimilarityFunction {
+
+    public static final String SEPARATOR = "|";
+
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile(Pattern.quote(SEPARATOR));
+
+    /** Žanrovi iz stringa, bez praznih i ponovljenih, redom kojim su navedeni. */
+    public static Set<String> genres(String zanrovi) {
+        Set<String> skup = new LinkedHashSet<>();
+        for (String zanr : SEPARATOR_PATTERN.split(zanrovi)) {
+            if (!zanr.isEmpty()) {
+                skup.add(zanr);
+            }
+        }
+        return skup;
+    }
+
+    /** Jaccard iz broja zajedničkih žanrova i broja žanrova u uniji; 0 ako je unija prazna. */
+    public static double similarity(int presek, int unija) {
+        return unija > 0 ? (double) presek / unija : 0.0;
+    }
+
+    @Override
+    public double compute(Object caseObject, Object queryObject) throws NoApplicableSimilarityFunctionException {
+        if (caseObject == null || queryObject == null) {
+            return 0.0;
+        }
+        if (!(caseObject instanceof String)) {
+            throw new NoApplicableSimilarityFunctionException(getClass(), caseObject.getClass());
+        }
+        if (!(queryObject instanceof String)) {
+            throw new NoApplicableSimilarityFunctionException(getClass(), queryObject.getClass());
+        }
+        Set<String> slucaj = genres((String) caseObject);
+        Set<String> upit = genres((String) queryObject);
+        int presek = 0;
+        for (String zanr : upit) {
+            if (slucaj.contains(zanr)) {
+                presek++;
+            }
+        }
+        return similarity(presek, slucaj.size() + upit.size() - presek);
+    }
+
+    @Override
+    public boolean isApplicable(Object caseObject, Object queryObject) {
+        return (caseObject == null || caseObject instanceof String)
+            && (queryObject == null || queryObject instanceof String);
+    }
+}
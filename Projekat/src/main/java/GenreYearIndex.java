@@ -0,0 +1,135 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Invertovani indeks žanr -> filmovi i (žanr, godina) -> filmovi.
+ * Gradi se jednom pri učitavanju kataloga, pa pretraga po žanru i godini
+ * traje srazmerno broju rezultata umesto skeniranja celog grafa.
+ * <p>
+ * Ključ žanra se normalizuje isto kao SPARQL {@code LCASE(str(?label))},
+ * a redovi rezultata su {@link FilmRows} mapirani istim upitom kao i SPARQL
+ * pretraga, istim redosledom ({@code ORDER BY}). Liste pogodaka se pune
+ * redom rednih brojeva filmova, pa je izlaz identičan, uključujući redosled.
+ */
+public class GenreYearIndex {
+
+    private static final int[] BEZ_FILMOVA = new int[0];
+
+    private final FilmRows rows;
+    private final Map<String, int[]> filmsByGenre;
+    private final Map<String, Map<Integer, int[]>> filmsByGenreAndYear;
+
+    private GenreYearIndex(Builder builder) {
+        this.rows = builder.rows;
+        Map<String, List<Integer>> byGenre = new HashMap<>();
+        Map<String, Map<Integer, List<Integer>>> byGenreAndYear = new HashMap<>();
+
+        for (int ordinal = 0; ordinal < rows.size(); ordinal++) {
+            for (String genreKey : builder.genresByFilm.getOrDefault(ordinal, Collections.emptyList())) {
+                byGenre.computeIfAbsent(genreKey, k -> new ArrayList<>()).add(ordinal);
+
+                Map<Integer, List<Integer>> byYear = byGenreAndYear.computeIfAbsent(genreKey, k -> new HashMap<>());
+                for (FilmResult row : rows.getRows(ordinal)) {
+                    if (row.hasGodina()) {
+                        List<Integer> films = byYear.computeIfAbsent(row.getGodina(), k -> new ArrayList<>());
+                        if (films.isEmpty() || films.get(films.size() - 1) != ordinal) {
+                            films.add(ordinal);
+                        }
+                    }
+                }
+            }
+        }
+
+        this.filmsByGenre = new HashMap<>();
+        byGenre.forEach((genreKey, films) -> filmsByGenre.put(genreKey, toArray(films)));
+        this.filmsByGenreAndYear = new HashMap<>();
+        byGenreAndYear.forEach((genreKey, byYear) -> {
+            Map<Integer, int[]> years = new HashMap<>();
+            byYear.forEach((godina, films) -> years.put(godina, toArray(films)));
+            filmsByGenreAndYear.put(genreKey, years);
+        });
+    }
+
+    private static int[] toArray(List<Integer> films) {
+        return films.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Isto kao Jena implementacija SPARQL {@code LCASE} funkcije, ali nezavisno
+     * od podrazumevanog jezika JVM-a; razlikuju se samo pod jezicima sa
+     * posebnim pravilima (npr. turski), gde bi LCASE u Jeni zavisio od sistema.
+     */
+    public static String normalizeGenre(String genre) {
+        return genre.toLowerCase(Locale.ROOT);
+    }
+
+    public List<FilmResult> findByGenre(String zanr) {
+        return streamByGenre(zanr).collect(Collectors.toList());
+    }
+
+    public List<FilmResult> findByGenreAndYear(String zanr, int godina) {
+        return streamByGenreAndYear(zanr, godina).collect(Collectors.toList());
+    }
+
+    /**
+     * Lenjo prolazi kroz pogotke, pa {@code skip}/{@code limit} nad vraćenim
+     * tokom koštaju srazmerno veličini strane, a ne broju svih pogodaka.
+     */
+    public Stream<FilmResult> streamByGenre(String zanr) {
+        int[] films = filmsByGenre.getOrDefault(normalizeGenre(zanr), BEZ_FILMOVA);
+        return IntStream.of(films)
+                        .mapToObj(rows::getRows)
+                        .flatMap(List::stream);
+    }
+
+    public Stream<FilmResult> streamByGenreAndYear(String zanr, int godina) {
+        Map<Integer, int[]> byYear = filmsByGenreAndYear.getOrDefault(normalizeGenre(zanr), Collections.emptyMap());
+        int[] films = byYear.getOrDefault(godina, BEZ_FILMOVA);
+        return IntStream.of(films)
+                        .mapToObj(rows::getRows)
+                        .flatMap(List::stream)
+                        .filter(row -> row.hasGodina() && row.getGodina() == godina);
+    }
+
+    public int getGenreCount() {
+        return filmsByGenre.size();
+    }
+
+    public int getFilmCount() {
+        return rows.size();
+    }
+
+    public static class Builder {
+        private final FilmRows rows;
+        private final Map<Integer, List<String>> genresByFilm = new HashMap<>();
+
+        /** Redovi određuju skup filmova u indeksu; žanrovi filmova bez reda se zanemaruju. */
+        public Builder(FilmRows rows) {
+            this.rows = rows;
+        }
+
+        public Builder addGenre(String filmId, String genreLabel) {
+            int ordinal = rows.ordinalOf(filmId);
+            if (ordinal < 0) {
+                return this;
+            }
+            List<String> genres = genresByFilm.computeIfAbsent(ordinal, k -> new ArrayList<>());
+            String key = normalizeGenre(genreLabel);
+            if (!genres.contains(key)) {
+                genres.add(key);
+            }
+            return this;
+        }
+
+        public GenreYearIndex build() {
+            return new GenreYearIndex(this);
+        }
+    }
+}
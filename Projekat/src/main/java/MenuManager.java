@@ -1,18 +1,27 @@
+import java.util.Iterator;
 import java.util.Scanner;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class MenuManager {
     
+    private static final int PAGE_SIZE = 10;
+    private static final int FACET_VALUES_SHOWN = 5;
+    private static final int TITLE_MATCHES_SHOWN = 10;
+
     private Scanner scanner;
+    private FilmCatalog catalog;
     private SparqlQueryService sparqlService;
     private FuzzyEvaluationService fuzzyService;
     private CbrRecommendationService cbrService;
     
     public MenuManager() {
         this.scanner = new Scanner(System.in);
-        this.sparqlService = new SparqlQueryService();
+        this.catalog = FilmCatalog.getInstance();
+        this.sparqlService = new SparqlQueryService(catalog);
         this.fuzzyService = new FuzzyEvaluationService();
-        this.cbrService = new CbrRecommendationService();
+        this.cbrService = new CbrRecommendationService(catalog);
     }
     
     public void showMainMenu() {
@@ -20,7 +29,7 @@ public class MenuManager {
         
         while (running) {
             printMainMenuHeader();
-            int choice = getMenuChoice(1, 4);
+            int choice = getMenuChoice(1, 5);
             
             switch (choice) {
                 case 1:
@@ -33,6 +42,9 @@ public class MenuManager {
                     showCbrRecommendationMenu();
                     break;
                 case 4:
+                    reloadCatalog();
+                    break;
+                case 5:
                     System.out.println("Izlazim iz aplikacije...");
                     running = false;
                     break;
@@ -49,7 +61,7 @@ public class MenuManager {
         
         while (inSubmenu) {
             printRecommendationMenuHeader();
-            int choice = getMenuChoice(1, 3);
+            int choice = getMenuChoice(1, 5);
             
             switch (choice) {
                 case 1:
@@ -59,6 +71,12 @@ public class MenuManager {
                     searchByGenreAndYear();
                     break;
                 case 3:
+                    facetedSearch();
+                    break;
+                case 4:
+                    showCacheStatistics();
+                    break;
+                case 5:
                     inSubmenu = false;
                     break;
             }
@@ -74,13 +92,16 @@ public class MenuManager {
         
         while (inSubmenu) {
             printFuzzyMenuHeader();
-            int choice = getMenuChoice(1, 2);
+            int choice = getMenuChoice(1, 3);
             
             switch (choice) {
                 case 1:
                     evaluateFilmQuality();
                     break;
                 case 2:
+                    showRuleStatistics();
+                    break;
+                case 3:
                     inSubmenu = false;
                     break;
             }
@@ -91,14 +112,26 @@ public class MenuManager {
         }
     }
     
+    private void reloadCatalog() {
+        System.out.println("\n--- PONOVNO UČITAVANJE KATALOGA ---");
+        
+        try {
+            long start = System.nanoTime();
+            catalog.reload();
+            System.out.printf("Katalog ponovo učitan: %d trojki za %d ms%n",
+                              catalog.getTripleCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            System.out.println("Greška pri ponovnom učitavanju kataloga: " + e.getMessage());
+        }
+    }
+    
     private void searchByGenre() {
         System.out.println("\n--- PRETRAGA PO ŽANRU ---");
         String zanr = getGenreInput();
         
         try {
-            List<FilmResult> results = sparqlService.searchByGenre(zanr);
             System.out.println("\nRezultati pretrage za žanr: " + zanr);
-            TableFormatter.printTable(results);
+            printPagedResults(sparqlService.streamByGenre(zanr));
         } catch (Exception e) {
             System.out.println("Greška pri pretrazi: " + e.getMessage());
         }
@@ -110,14 +143,88 @@ public class MenuManager {
         int godina = getYearInput();
         
         try {
-            List<FilmResult> results = sparqlService.searchByGenreAndYear(zanr, godina);
             System.out.println("\nRezultati pretrage za žanr: " + zanr + ", godina: " + godina);
-            TableFormatter.printTable(results);
+            printPagedResults(sparqlService.streamByGenreAndYear(zanr, godina));
         } catch (Exception e) {
             System.out.println("Greška pri pretrazi: " + e.getMessage());
         }
     }
     
+    private void facetedSearch() {
+        System.out.println("\n--- NAPREDNA PRETRAGA ---");
+        System.out.println("Prazan unos preskače filter. Više vrednosti odvojite zarezom.");
+
+        try {
+            FacetQuery.Builder builder = FacetQuery.builder();
+            for (FacetQuery.Facet facet : FacetQuery.Facet.values()) {
+                System.out.print(facet.getLabel() + ": ");
+                for (String vrednost : scanner.nextLine().split(",")) {
+                    builder.value(facet, vrednost);
+                }
+            }
+            for (FacetQuery.Range range : FacetQuery.Range.values()) {
+                Long min = getOptionalNumberInput(range.getLabel() + " od: ");
+                Long max = getOptionalNumberInput(range.getLabel() + " do: ");
+                if (min != null || max != null) {
+                    builder.range(range, min != null ? min : Long.MIN_VALUE, max != null ? max : Long.MAX_VALUE);
+                }
+            }
+
+            FacetQuery upit = builder.build();
+            FacetSearchResult rezultat = sparqlService.facetedSearch(upit, 0, 0);
+            System.out.println("\nPronađeno filmova: " + rezultat.getUkupno());
+            printFacetCounts(rezultat);
+            printPagedResults(sparqlService.streamFacetedSearch(upit));
+        } catch (Exception e) {
+            System.out.println("Greška pri pretrazi: " + e.getMessage());
+        }
+    }
+
+    private void printFacetCounts(FacetSearchResult rezultat) {
+        for (FacetQuery.Facet facet : FacetQuery.Facet.values()) {
+            Map<String, Integer> counts = rezultat.getTopFacetCounts(facet, FACET_VALUES_SHOWN);
+            if (counts.isEmpty()) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder("  " + facet.getLabel() + ":");
+            counts.forEach((vrednost, broj) -> line.append(" ").append(vrednost).append(" (").append(broj).append(")"));
+            if (rezultat.getFacetValueCount(facet) > FACET_VALUES_SHOWN) {
+                line.append(" ...");
+            }
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Prikazuje rezultate po stranama iz jednog toka; sledeća strana se čita
+     * iz istog toka, a tok se zatvara kad korisnik odustane ili kad se
+     * pročita do kraja.
+     */
+    private void printPagedResults(Stream<FilmResult> rezultati) {
+        int ukupno = 0;
+        int brojStrane = 1;
+
+        try (rezultati) {
+            Iterator<FilmResult> iterator = rezultati.iterator();
+            while (true) {
+                ukupno += TableFormatter.printPage(iterator, PAGE_SIZE, brojStrane);
+
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                System.out.print("Enter za sledeću stranu, 'k' za kraj: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("k")) {
+                    break;
+                }
+                brojStrane++;
+            }
+        }
+
+        if (ukupno > 0) {
+            System.out.println("Ukupno prikazano: " + ukupno + " filmova");
+        }
+    }
+    
     private void evaluateFilmQuality() {
         System.out.println("\n--- FUZZY EVALUACIJA KVALITETA FILMA ---");
         System.out.println("Ocenite sledeće kriterijume na skali od 1 do 10:");
@@ -129,19 +236,54 @@ public class MenuManager {
             double originalnost = getCriteriaInput("Originalnost");
             double vizuelniEfekti = getCriteriaInput("Vizuelni efekti");
             
-            FuzzyEvaluationService.FuzzyResult result = 
-                fuzzyService.evaluateFilm(rezija, gluma, scenario, originalnost, vizuelniEfekti);
+            FuzzyEvaluationService.FuzzyExplanation explanation = 
+                fuzzyService.explain(rezija, gluma, scenario, originalnost, vizuelniEfekti);
             
             System.out.println("\n" + "=".repeat(40));
             System.out.println("REZULTAT EVALUACIJE:");
-            System.out.println("Kvalitet filma: " + result.getFormattedResult());
+            System.out.println("Kvalitet filma: " + explanation.getResult().getFormattedResult());
             System.out.println("=".repeat(40));
             
+            List<FuzzyEvaluationService.RuleActivation> fired = explanation.getFiredRules();
+            if (fired.isEmpty()) {
+                System.out.println("Nijedno pravilo nije aktivirano, data je podrazumevana ocena.");
+            } else {
+                System.out.println("Aktivirana pravila:");
+                for (FuzzyEvaluationService.RuleActivation activation : fired) {
+                    System.out.println("  " + activation);
+                }
+            }
+            
         } catch (Exception e) {
             System.out.println("Greška pri evaluaciji: " + e.getMessage());
         }
     }
     
+    private void showRuleStatistics() {
+        System.out.println("\n--- STATISTIKA AKTIVIRANJA PRAVILA ---");
+        RuleFiringStatistics statistics = fuzzyService.getRuleStatistics();
+        if (statistics == null) {
+            System.out.println("Brojanje nije uključeno (pokrenuti sa -D"
+                               + FuzzyEvaluationService.INSTRUMENTATION_PROPERTY + "=true).");
+            return;
+        }
+        System.out.println("Broj ocena: " + statistics.getEvaluationCount());
+        for (RuleFiringStatistics.RuleCount count : statistics.snapshot()) {
+            System.out.println("  " + count);
+        }
+    }
+    
+    private void showCacheStatistics() {
+        System.out.println("\n--- STATISTIKA KEŠA PRETRAGE ---");
+        QueryResultCache.Statistics statistics = sparqlService.getCacheStatistics();
+        if (statistics == null) {
+            System.out.println("Keš nije uključen (pokrenuti sa -D"
+                               + SparqlQueryService.CACHE_SIZE_PROPERTY + " većim od 0).");
+            return;
+        }
+        System.out.println(statistics);
+    }
+    
     private void printMainMenuHeader() {
         System.out.println("\n" + "=".repeat(50));
         System.out.println("       SISTEM PREPORUKE I OCENE FILMOVA");
@@ -149,9 +291,10 @@ public class MenuManager {
         System.out.println("1. Preporuke filmova (SPARQL)");
         System.out.println("2. Ocenjivanje kvaliteta (Fuzzy)");
         System.out.println("3. Slični filmovi (CBR)");
-        System.out.println("4. Izlaz");
+        System.out.println("4. Ponovo učitaj katalog");
+        System.out.println("5. Izlaz");
         System.out.println("=".repeat(50));
-        System.out.print("Izaberite opciju (1-4): ");
+        System.out.print("Izaberite opciju (1-5): ");
     }
     
     private void printRecommendationMenuHeader() {
@@ -160,9 +303,11 @@ public class MenuManager {
         System.out.println("=".repeat(40));
         System.out.println("1. Pretraga po žanru");
         System.out.println("2. Pretraga po žanru i godini");
-        System.out.println("3. Nazad na glavni meni");
+        System.out.println("3. Napredna pretraga (filteri)");
+        System.out.println("4. Statistika keša pretrage");
+        System.out.println("5. Nazad na glavni meni");
         System.out.println("=".repeat(40));
-        System.out.print("Izaberite opciju (1-3): ");
+        System.out.print("Izaberite opciju (1-5): ");
     }
 
     private void printFuzzyMenuHeader() {
@@ -170,9 +315,10 @@ public class MenuManager {
         System.out.println("         FUZZY OCENJIVANJE");
         System.out.println("=".repeat(40));
         System.out.println("1. Oceni novi film");
-        System.out.println("2. Nazad na glavni meni");
+        System.out.println("2. Statistika aktiviranja pravila");
+        System.out.println("3. Nazad na glavni meni");
         System.out.println("=".repeat(40));
-        System.out.print("Izaberite opciju (1-2): ");
+        System.out.print("Izaberite opciju (1-3): ");
     }
 
     private void showCbrRecommendationMenu() {
@@ -211,24 +357,11 @@ public class MenuManager {
         System.out.println("\n--- CBR PREPORUKE SLIČNIH FILMOVA ---");
         
         try {
-            List<MovieCase> allMovies = cbrService.getAllMovies();
-            
-            if (allMovies.isEmpty()) {
-                System.out.println("Nema dostupnih filmova u bazi.");
+            MovieCase selectedMovie = selectMovieByTitle();
+            if (selectedMovie == null) {
                 return;
             }
             
-            System.out.println("\n=== DOSTUPNI FILMOVI ===");
-            for (int i = 0; i < allMovies.size(); i++) {
-                MovieCase movie = allMovies.get(i);
-                System.out.printf("%d. %s (%d) - %s [%s]\n", 
-                                i + 1, movie.getNaslov(), movie.getGodina(), 
-                                movie.getReziser(), movie.getSviZanrovi()); 
-            }
-            
-            int selectedIndex = getMovieChoice(allMovies.size()) - 1;
-            MovieCase selectedMovie = allMovies.get(selectedIndex);
-            
             System.out.println("\nTražim filmove slične sa: " + selectedMovie.getNaslov());
             
             List<CbrRecommendationService.MovieRecommendation> recommendations = 
@@ -302,6 +435,31 @@ public class MenuManager {
         return text.substring(0, maxWidth - 3) + "...";
     }
 
+    private MovieCase selectMovieByTitle() {
+        while (true) {
+            System.out.print("Unesite deo naslova filma (Enter za povratak): ");
+            String upit = scanner.nextLine().trim();
+            if (upit.isEmpty()) {
+                return null;
+            }
+
+            List<MovieCase> matches = cbrService.searchByTitle(upit, TITLE_MATCHES_SHOWN);
+            if (matches.isEmpty()) {
+                System.out.println("Nijedan film ne odgovara naslovu \"" + upit + "\".");
+                continue;
+            }
+
+            System.out.println("\n=== PRONAĐENI FILMOVI ===");
+            for (int i = 0; i < matches.size(); i++) {
+                MovieCase movie = matches.get(i);
+                System.out.printf("%d. %s (%d) - %s [%s]\n", 
+                                i + 1, movie.getNaslov(), movie.getGodina(), 
+                                movie.getReziser(), movie.getSviZanrovi()); 
+            }
+            return matches.get(getMovieChoice(matches.size()) - 1);
+        }
+    }
+
     private int getMovieChoice(int maxMovies) {
         while (true) {
             System.out.print("\nIzaberite film (1-" + maxMovies + "): ");
@@ -358,6 +516,21 @@ public class MenuManager {
         }
     }
 
+    private Long getOptionalNumberInput(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            String input = scanner.nextLine().trim();
+            if (input.isEmpty()) {
+                return null;
+            }
+            try {
+                return Long.parseLong(input);
+            } catch (NumberFormatException e) {
+                System.out.println("Molimo unesite ceo broj ili ostavite prazno.");
+            }
+        }
+    }
+
     private double getCriteriaInput(String criteriaName) {
         while (true) {
             System.out.print(criteriaName + " (1-10): ");
@@ -383,5 +556,14 @@ public class MenuManager {
         if (scanner != null) {
             scanner.close();
         }
+        if (sparqlService != null) {
+            sparqlService.close();
+        }
+        if (cbrService != null) {
+            cbrService.close();
+        }
+        if (fuzzyService != null) {
+            fuzzyService.close();
+        }
     }
 }
\ No newline at end of file
@@ -4,8 +4,8 @@ import ucm.gaia.jcolibri.cbrcore.CaseComponent;
 public class MovieCase implements CaseComponent {
     
     private String naslov;
-    private String zanr;  // glavni žanr za similarity
-    private String sviZanrovi; // svi žanrovi za prikaz
+    private String zanr;  // glavni (prvi) žanr
+    private String sviZanrovi; // svi žanrovi odvojeni sa |, za prikaz i similarity
     private Integer godina;
     private String reziser;
     private String id;
@@ -0,0 +1,69 @@
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.op.OpSlice;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.ResultSetStream;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.iterator.QueryIterRoot;
+import org.apache.jena.sparql.engine.main.QC;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SPARQL upit koji se parsira i algebarski optimizuje samo jednom.
+ * Pri svakom izvršavanju se vrednosti parametara zamenjuju direktno u
+ * optimizovanom algebarskom stablu, pa korisnički unos nikad ne ulazi u
+ * tekst upita.
+ */
+public class PreparedSparqlQuery {
+
+    private static final Map<String, PreparedSparqlQuery> CACHE = new ConcurrentHashMap<>();
+
+    private final Query query;
+    private final Op optimizedOp;
+
+    private PreparedSparqlQuery(String sparqlQuery) {
+        this.query = QueryFactory.create(sparqlQuery);
+        this.optimizedOp = Algebra.optimize(Algebra.compile(query));
+    }
+
+    /**
+     * Vraća keširanu pripremljenu verziju upita, parsirajući ga samo pri prvom pozivu.
+     */
+    public static PreparedSparqlQuery of(String sparqlQuery) {
+        return CACHE.computeIfAbsent(sparqlQuery, PreparedSparqlQuery::new);
+    }
+
+    /**
+     * Izvršava upit nad skladištem sa zadatim vrednostima parametara.
+     * Mora se pozvati unutar read transakcije kataloga.
+     */
+    public ResultSet execute(Dataset dataset, Binding parameters) {
+        return execute(dataset, parameters, 0, Query.NOLIMIT);
+    }
+
+    /**
+     * Izvršava samo jednu stranu rezultata ({@code OFFSET}/{@code LIMIT}).
+     * Vraćeni {@link ResultSet} je lenj i drži otvoren iterator upita dok se ne zatvori.
+     */
+    public ResultSet execute(Dataset dataset, Binding parameters, long offset, long limit) {
+        Op boundOp = parameters.isEmpty() ? optimizedOp : QC.substitute(optimizedOp, parameters);
+        if (offset > 0 || limit != Query.NOLIMIT) {
+            boundOp = new OpSlice(boundOp, offset > 0 ? offset : Query.NOLIMIT, limit);
+        }
+        // Izvršava se direktno preko OpExecutor-a, bez ponovne optimizacije koju radi QueryEngine
+        ExecutionContext execCxt = new ExecutionContext(dataset.asDatasetGraph());
+        QueryIterator iterator = QC.execute(boundOp, QueryIterRoot.create(execCxt), execCxt);
+        return ResultSetStream.create(query.getResultVars(), dataset.getDefaultModel(), iterator);
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+}
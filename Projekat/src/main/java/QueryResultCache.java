@@ -0,0 +1,136 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ograničeni LRU keš rezultata pretrage sa opcionim vremenom isteka (TTL).
+ * <p>
+ * Svaki unos pamti generaciju keša u kojoj je upit započet. Posle
+ * {@link #invalidateAll()} generacija se povećava, pa se rezultat upita koji
+ * je bio u toku tokom promene kataloga neće upisati u keš.
+ */
+public class QueryResultCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile long generation;
+
+    /**
+     * @param maxEntries najveći broj unosa pre izbacivanja najstarijeg korišćenog
+     * @param ttlMillis  vreme važenja unosa u milisekundama, 0 za neograničeno
+     */
+    public QueryResultCache(int maxEntries, long ttlMillis) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Veličina keša mora biti pozitivna, a uneto je: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > QueryResultCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && isExpired(entry)) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    /**
+     * Upisuje rezultat samo ako se keš nije poništio od trenutka
+     * {@code startGeneration} (vrednost {@link #currentGeneration()} pre upita).
+     */
+    public void put(K key, V value, long startGeneration) {
+        synchronized (entries) {
+            if (startGeneration == generation) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+    }
+
+    public long currentGeneration() {
+        return generation;
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    public Statistics getStatistics() {
+        synchronized (entries) {
+            return new Statistics(hits.get(), misses.get(), evictions.get(), entries.size(), maxEntries);
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlNanos > 0 && System.nanoTime() - entry.createdNanos > ttlNanos;
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long createdNanos;
+
+        Entry(V value, long createdNanos) {
+            this.value = value;
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    public static class Statistics {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final int maxEntries;
+
+        public Statistics(long hits, long misses, long evictions, int size, int maxEntries) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.maxEntries = maxEntries;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public int getSize() { return size; }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Keš pretrage: %d/%d unosa, pogoci=%d, promašaji=%d (%.1f%%), izbačeno=%d",
+                                 size, maxEntries, hits, misses, getHitRate() * 100, evictions);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import org.apache.jena.datatypes.xsd.XSDDateTime;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.RDFNode;
+
+/**
+ * Čitanje vrednosti iz SPARQL rezultata direktno iz tipiziranih literala,
+ * bez {@code toString()} i sečenja {@code ^^xsd:...} sufiksa.
+ * Brojevi se vraćaju kao primitivni tipovi, a nedostajuća ili neispravna
+ * vrednost kao {@link #NEPOZNATO}.
+ */
+public final class RdfValues {
+
+    public static final String NEMA_VREDNOSTI = "N/A";
+    public static final int NEPOZNATO = -1;
+
+    private RdfValues() {
+    }
+
+    public static String text(QuerySolution solution, String varName) {
+        RDFNode node = solution.get(varName);
+        if (node == null) {
+            return NEMA_VREDNOSTI;
+        }
+        if (node.isLiteral()) {
+            return node.asLiteral().getLexicalForm();
+        }
+        return node.isURIResource() ? node.asResource().getURI() : node.toString();
+    }
+
+    public static int intValue(QuerySolution solution, String varName) {
+        long value = longValue(solution, varName);
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (int) value : NEPOZNATO;
+    }
+
+    public static long longValue(QuerySolution solution, String varName) {
+        RDFNode node = solution.get(varName);
+        if (node == null || !node.isLiteral()) {
+            return NEPOZNATO;
+        }
+        Literal literal = node.asLiteral();
+        try {
+            Object value = literal.getValue();
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            }
+            if (value instanceof XSDDateTime) {
+                // xsd:gYear i ostali datumski tipovi
+                return ((XSDDateTime) value).getYears();
+            }
+            return Long.parseLong(literal.getLexicalForm().trim());
+        } catch (RuntimeException e) {
+            // neispravan leksički oblik ili datum bez godine
+            return NEPOZNATO;
+        }
+    }
+
+    public static String directorName(QuerySolution solution) {
+        return personName(solution, "reziserIme", "reziserPrezime");
+    }
+
+    public static String personName(QuerySolution solution, String imeVar, String prezimeVar) {
+        String ime = text(solution, imeVar);
+        String prezime = text(solution, prezimeVar);
+
+        if (!NEMA_VREDNOSTI.equals(ime) && !NEMA_VREDNOSTI.equals(prezime)) {
+            return ime + " " + prezime;
+        } else if (!NEMA_VREDNOSTI.equals(ime)) {
+            return ime;
+        } else if (!NEMA_VREDNOSTI.equals(prezime)) {
+            return prezime;
+        }
+        return NEMA_VREDNOSTI;
+    }
+}
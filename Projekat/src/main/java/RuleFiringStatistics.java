@@ -0,0 +1,84 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zbirni brojači aktiviranja fuzzy pravila: koliko puta je svako pravilo
+ * imalo stepen veći od nule i zbir tih stepena. Brojači su
+ * {@link LongAdder}/{@link DoubleAdder}, koji se pod istovremenim upisom
+ * raspoređuju u odvojene ćelije po nitima, pa niti koje ocenjuju paralelno
+ * ne čekaju jedna na drugu. Čitanje sabira ćelije i nije atomski presek:
+ * ocene koje su u toku mogu biti delimično uračunate.
+ */
+public class RuleFiringStatistics {
+
+    private final String[] names;
+    private final String[] texts;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder[] firings;
+    private final DoubleAdder[] degreeSums;
+
+    public RuleFiringStatistics(String[] names, String[] texts) {
+        this.names = names;
+        this.texts = texts;
+        this.firings = new LongAdder[names.length];
+        this.degreeSums = new DoubleAdder[names.length];
+        for (int i = 0; i < names.length; i++) {
+            firings[i] = new LongAdder();
+            degreeSums[i] = new DoubleAdder();
+        }
+    }
+
+    /** Beleži jednu ocenu; {@code degrees} su stepeni pravila redom kao u FCL-u. */
+    public void record(double[] degrees) {
+        evaluations.increment();
+        for (int i = 0; i < firings.length; i++) {
+            if (degrees[i] > 0.0) {
+                firings[i].increment();
+                degreeSums[i].add(degrees[i]);
+            }
+        }
+    }
+
+    public long getEvaluationCount() {
+        return evaluations.sum();
+    }
+
+    /** Trenutno stanje brojača, po jedan red za svako pravilo. */
+    public List<RuleCount> snapshot() {
+        List<RuleCount> counts = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            counts.add(new RuleCount(names[i], texts[i], firings[i].sum(), degreeSums[i].sum()));
+        }
+        return counts;
+    }
+
+    public static class RuleCount {
+        private final String name;
+        private final String text;
+        private final long firings;
+        private final double degreeSum;
+
+        public RuleCount(String name, String text, long firings, double degreeSum) {
+            this.name = name;
+            this.text = text;
+            this.firings = firings;
+            this.degreeSum = degreeSum;
+        }
+
+        public String getName() { return name; }
+        public String getText() { return text; }
+        public long getFirings() { return firings; }
+
+        /** Prosečan stepen u ocenama u kojima je pravilo aktivirano. */
+        public double getAverageDegree() {
+            return firings > 0 ? degreeSum / firings : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RULE %s: %d puta, prosečno %.2f", name, firings, getAverageDegree());
+        }
+    }
+}
@@ -1,128 +1,455 @@
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.*;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.util.FileManager;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.expr.NodeValue;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class SparqlQueryService {
+public class SparqlQueryService implements AutoCloseable {
     
-    private Model model;
-    private final String namespace = "http://www.iz-projekat/film-sema#";
+    private static final Var TRAZENI_ZANR = Var.alloc("trazeniZanr");
+    private static final Var TRAZENA_GODINA = Var.alloc("trazenaGodina");
+
+    private static final String FILM_PATTERN =
+        "PREFIX : <" + FilmCatalog.NAMESPACE + ">" +
+        "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>" +
+        "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#>" +
+        "SELECT ?film ?naslov ?godina ?trajanje ?budzet ?reziserIme ?reziserPrezime " +
+        "(GROUP_CONCAT(DISTINCT ?zanrLabel; separator=\", \") AS ?sviZanrovi) WHERE {" +
+        "  ?film a :Film ." +
+        "  ?film :naslov ?naslov ." +
+        "  ?film :godinaIzdanja ?godina ." +
+        "  OPTIONAL { ?film :trajanjeMinuta ?trajanje }" +
+        "  OPTIONAL { ?film :budzetUSD ?budzet }" +
+        "  OPTIONAL { ?film :rezirao ?reziserObj . ?reziserObj :licnoIme ?reziserIme . ?reziserObj :prezime ?reziserPrezime }" +
+        "  ?film :imaZanr ?zanrObj ." +
+        "  ?zanrObj rdfs:label ?zanrLabel .";
+
+    private static final String GENRE_FILTER =
+        "  FILTER(EXISTS { ?film :imaZanr ?testZanr . ?testZanr rdfs:label ?testLabel . FILTER(LCASE(str(?testLabel)) = LCASE(?trazeniZanr)) })";
+
+    // Bez ORDER BY Jena vraća grupe redom iz heš mape, pa bi se redosled menjao sa veličinom rezultata
+    private static final String GROUP_BY =
+        "} GROUP BY ?film ?naslov ?godina ?trajanje ?budzet ?reziserIme ?reziserPrezime" +
+        " ORDER BY ?film ?naslov ?godina ?trajanje ?budzet ?reziserIme ?reziserPrezime";
+
+    // Parametri ?trazeniZanr i ?trazenaGodina se vezuju pri izvršavanju, ne ulaze u tekst upita
+    private static final String GENRE_QUERY = FILM_PATTERN + GENRE_FILTER + GROUP_BY;
+
+    private static final String GENRE_AND_YEAR_QUERY =
+        FILM_PATTERN + GENRE_FILTER + "  FILTER(xsd:int(?godina) = ?trazenaGodina)" + GROUP_BY;
+
+    private static final String ALL_FILMS_QUERY = FILM_PATTERN + GROUP_BY;
+
+    private static final String FILM_GENRES_QUERY =
+        "PREFIX : <" + FilmCatalog.NAMESPACE + ">" +
+        "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>" +
+        "SELECT ?film ?zanrLabel WHERE {" +
+        "  ?film a :Film ." +
+        "  ?film :imaZanr ?zanrObj ." +
+        "  ?zanrObj rdfs:label ?zanrLabel ." +
+        "}";
+
+    // Vrednosti svih faseta u jednom prolazu; ?svojstvo je lokalno ime svojstva fasete
+    private static final String FILM_FACETS_QUERY =
+        "PREFIX : <" + FilmCatalog.NAMESPACE + ">" +
+        "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>" +
+        "SELECT ?film ?svojstvo ?vrednost ?label ?ime ?prezime WHERE {" +
+        "  VALUES ?svojstvo { :imaZanr :rezirao :glumi :proizvedenoUStudiju :izvorniJezik :zemljaPorijekla }" +
+        "  ?film a :Film ." +
+        "  ?film ?svojstvo ?vrednost ." +
+        "  OPTIONAL { ?vrednost rdfs:label ?label }" +
+        "  OPTIONAL { ?vrednost :licnoIme ?ime }" +
+        "  OPTIONAL { ?vrednost :prezime ?prezime }" +
+        "}";
+
+    private static final String FILM_NUMBERS_QUERY =
+        "PREFIX : <" + FilmCatalog.NAMESPACE + ">" +
+        "SELECT ?film ?godina ?trajanje ?budzet ?zarada WHERE {" +
+        "  ?film a :Film ." +
+        "  OPTIONAL { ?film :godinaIzdanja ?godina }" +
+        "  OPTIONAL { ?film :trajanjeMinuta ?trajanje }" +
+        "  OPTIONAL { ?film :budzetUSD ?budzet }" +
+        "  OPTIONAL { ?film :zaradaUSD ?zarada }" +
+        "}";
+
+    /**
+     * Sistemsko svojstvo kojim se indeks žanrova može isključiti (npr. za
+     * veoma velike TDB2 kataloge); tada se pretrage izvršavaju kao SPARQL upiti.
+     */
+    public static final String GENRE_INDEX_PROPERTY = "film.katalog.indeks";
+
+    /** Najveći broj keširanih pretraga (LRU), 0 isključuje keš. */
+    public static final String CACHE_SIZE_PROPERTY = "film.pretraga.kes.velicina";
+
+    /** Vreme važenja keširanog rezultata u milisekundama, 0 za neograničeno. */
+    public static final String CACHE_TTL_PROPERTY = "film.pretraga.kes.ttl";
+
+    // Veći rezultati se ne keširaju, već se uvek čitaju kao tok
+    private static final int MAX_CACHED_ROWS = 1000;
+
+    private final FilmCatalog catalog;
+    private final boolean useIndex;
+    private volatile GenreYearIndex genreIndex;
+    private volatile Generated<FilmRows> filmRows;
+    private volatile Generated<FacetIndex> facetIndex;
+    private final QueryResultCache<String, List<FilmResult>> resultCache;
+    private final QueryResultCache<FacetQuery, FacetIndex.Hits> facetCache;
+    private final Runnable changeListener = this::onCatalogChanged;
 
     public SparqlQueryService() {
-        initializeModel();
+        this(FilmCatalog.getInstance());
     }
-    
-    private void initializeModel() {
+
+    public SparqlQueryService(FilmCatalog catalog) {
+        this.catalog = catalog;
+        this.useIndex = Boolean.parseBoolean(System.getProperty(GENRE_INDEX_PROPERTY, "true"));
+        this.genreIndex = useIndex ? buildGenreIndex() : null;
+        int cacheSize = Integer.getInteger(CACHE_SIZE_PROPERTY, 256);
+        long cacheTtl = Long.getLong(CACHE_TTL_PROPERTY, 0L);
+        this.resultCache = cacheSize > 0 ? new QueryResultCache<>(cacheSize, cacheTtl) : null;
+        this.facetCache = cacheSize > 0 ? new QueryResultCache<>(cacheSize, cacheTtl) : null;
+        catalog.addChangeListener(changeListener);
+    }
+
+    /**
+     * Odjavljuje servis sa kataloga, pa se njegovi indeksi i keš više ne
+     * obnavljaju pri promeni kataloga.
+     */
+    @Override
+    public void close() {
+        catalog.removeChangeListener(changeListener);
+    }
+
+    private void onCatalogChanged() {
+        synchronized (this) {
+            filmRows = null;
+            facetIndex = null;
+        }
+        if (useIndex) {
+            genreIndex = buildGenreIndex();
+        }
+        if (resultCache != null) {
+            resultCache.invalidateAll();
+        }
+        if (facetCache != null) {
+            facetCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Statistika keša pretrage, ili {@code null} ako je keš isključen.
+     */
+    public QueryResultCache.Statistics getCacheStatistics() {
+        return resultCache != null ? resultCache.getStatistics() : null;
+    }
+
+    private GenreYearIndex buildGenreIndex() {
         try {
-            model = ModelFactory.createDefaultModel();
-            FileManager.get().readModel(model, "src/main/resources/film_sema.ttl", "TTL");
-            FileManager.get().readModel(model, "src/main/resources/film_podaci.ttl", "TTL");
+            GenreYearIndex.Builder builder = new GenreYearIndex.Builder(getFilmRows());
+            return catalog.read(() -> {
+                ResultSet genres = PreparedSparqlQuery.of(FILM_GENRES_QUERY).execute(catalog.getDataset(), BindingFactory.empty());
+                while (genres.hasNext()) {
+                    QuerySolution solution = genres.nextSolution();
+                    if (!solution.get("zanrLabel").isAnon()) {
+                        builder.addGenre(RdfValues.text(solution, "film"), RdfValues.text(solution, "zanrLabel"));
+                    }
+                }
+                return builder.build();
+            });
         } catch (Exception e) {
-            throw new RuntimeException("Greska pri učitavanju ontologije: " + e.getMessage());
+            throw new RuntimeException("Greška pri izgradnji indeksa žanrova: " + e.getMessage());
         }
     }
 
-    public List<FilmResult> searchByGenre(String zanr) {
-        String sparqlQuery = 
-            "PREFIX : <" + namespace + ">" +
-            "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>" +
-            "SELECT ?film ?naslov ?godina ?trajanje ?budzet ?reziserIme ?reziserPrezime " +
-            "(GROUP_CONCAT(DISTINCT ?zanrLabel; separator=\", \") AS ?sviZanrovi) WHERE {" +
-            "  ?film a :Film ." +
-            "  ?film :naslov ?naslov ." +
-            "  ?film :godinaIzdanja ?godina ." +
-            "  OPTIONAL { ?film :trajanjeMinuta ?trajanje }" +
-            "  OPTIONAL { ?film :budzetUSD ?budzet }" +
-            "  OPTIONAL { ?film :rezirao ?reziserObj . ?reziserObj :licnoIme ?reziserIme . ?reziserObj :prezime ?reziserPrezime }" +
-            "  ?film :imaZanr ?zanrObj ." +
-            "  ?zanrObj rdfs:label ?zanrLabel ." +
-            "  FILTER(EXISTS { ?film :imaZanr ?testZanr . ?testZanr rdfs:label ?testLabel . FILTER(LCASE(str(?testLabel)) = LCASE(\"" + zanr + "\")) })" +
-            "} GROUP BY ?film ?naslov ?godina ?trajanje ?budzet ?reziserIme ?reziserPrezime";
-        
-        return executeQuery(sparqlQuery);
+    /**
+     * Fasetna pretraga po bilo kojoj kombinaciji faseta i opsega. Vraća
+     * jednu stranu redova rezultata, ukupan broj filmova i broj pogodaka po
+     * vrednosti svake fasete. Indeks faseta se gradi pri prvoj pretrazi i
+     * ponovo posle promene kataloga.
+     */
+    public FacetSearchResult facetedSearch(FacetQuery upit, long offset, long limit) {
+        return matchFacets(upit).page(offset, limit);
     }
 
-    public List<FilmResult> searchByGenreAndYear(String zanr, int godina) {
-        String sparqlQuery = 
-            "PREFIX : <" + namespace + ">" +
-            "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>" +
-            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#>" +
-            "SELECT ?film ?naslov ?godina ?trajanje ?budzet ?reziserIme ?reziserPrezime " +
-            "(GROUP_CONCAT(DISTINCT ?zanrLabel; separator=\", \") AS ?sviZanrovi) WHERE {" +
-            "  ?film a :Film ." +
-            "  ?film :naslov ?naslov ." +
-            "  ?film :godinaIzdanja ?godina ." +
-            "  OPTIONAL { ?film :trajanjeMinuta ?trajanje }" +
-            "  OPTIONAL { ?film :budzetUSD ?budzet }" +
-            "  OPTIONAL { ?film :rezirao ?reziserObj . ?reziserObj :licnoIme ?reziserIme . ?reziserObj :prezime ?reziserPrezime }" +
-            "  ?film :imaZanr ?zanrObj ." +
-            "  ?zanrObj rdfs:label ?zanrLabel ." +
-            "  FILTER(EXISTS { ?film :imaZanr ?testZanr . ?testZanr rdfs:label ?testLabel . FILTER(LCASE(str(?testLabel)) = LCASE(\"" + zanr + "\")) })" +
-            "  FILTER(xsd:int(?godina) = " + godina + ")" +
-            "} GROUP BY ?film ?naslov ?godina ?trajanje ?budzet ?reziserIme ?reziserPrezime";
-        
-        return executeQuery(sparqlQuery);
-    }
-
-    private List<FilmResult> executeQuery(String sparqlQuery) {
-        List<FilmResult> results = new ArrayList<>();
-        
-        try {
-            Query query = QueryFactory.create(sparqlQuery);
-            QueryExecution qe = QueryExecutionFactory.create(query, model);
-            ResultSet resultSet = qe.execSelect();
-            
-            while (resultSet.hasNext()) {
-                QuerySolution solution = resultSet.nextSolution();
-                
-                String naslov = getStringValue(solution, "naslov");
-                String godina = getStringValue(solution, "godina");
-                String trajanje = getStringValue(solution, "trajanje");
-                String budzet = getStringValue(solution, "budzet");
-                String reziser = buildDirectorName(solution);
-                String zanrovi = getStringValue(solution, "sviZanrovi");
-                
-                FilmResult result = new FilmResult(naslov, godina, trajanje, budzet, reziser, zanrovi);
-                results.add(result);
+    /**
+     * Svi redovi rezultata fasetne pretrage kao tok, za čitanje po stranama.
+     * Pogoci i broj po fasetama se računaju jednom po upitu i generaciji
+     * kataloga, pa ovaj poziv posle {@link #facetedSearch} ne ponavlja
+     * pretragu.
+     */
+    public Stream<FilmResult> streamFacetedSearch(FacetQuery upit) {
+        return matchFacets(upit).stream();
+    }
+
+    private FacetIndex.Hits matchFacets(FacetQuery upit) {
+        if (facetCache == null) {
+            return getFacetIndex().match(upit);
+        }
+        FacetIndex.Hits hits = facetCache.get(upit);
+        if (hits == null) {
+            long generation = facetCache.currentGeneration();
+            hits = getFacetIndex().match(upit);
+            facetCache.put(upit, hits, generation);
+        }
+        return hits;
+    }
+
+    /**
+     * Indeks faseta za trenutnu generaciju kataloga. Gradi se pod istim
+     * monitorom pod kojim ga promena kataloga briše, a pamti generaciju
+     * pročitanu pre izgradnje, pa se indeks napravljen dok se katalog
+     * menjao odbacuje i gradi ponovo.
+     */
+    private FacetIndex getFacetIndex() {
+        Generated<FacetIndex> index = facetIndex;
+        if (index == null || index.generation != catalog.getGeneration()) {
+            synchronized (this) {
+                index = facetIndex;
+                long generation = catalog.getGeneration();
+                if (index == null || index.generation != generation) {
+                    index = new Generated<>(generation, buildFacetIndex());
+                    facetIndex = index;
+                }
             }
-            
-            qe.close();
+        }
+        return index.value;
+    }
+
+    /**
+     * Redovi svih filmova za trenutnu generaciju kataloga, zajednički za
+     * indeks žanrova i indeks faseta; gradi se i odbacuje kao i indeks faseta.
+     */
+    private FilmRows getFilmRows() {
+        Generated<FilmRows> rows = filmRows;
+        if (rows == null || rows.generation != catalog.getGeneration()) {
+            synchronized (this) {
+                rows = filmRows;
+                long generation = catalog.getGeneration();
+                if (rows == null || rows.generation != generation) {
+                    rows = new Generated<>(generation, buildFilmRows());
+                    filmRows = rows;
+                }
+            }
+        }
+        return rows.value;
+    }
+
+    private static final class Generated<T> {
+        private final long generation;
+        private final T value;
+
+        Generated(long generation, T value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+
+    private FilmRows buildFilmRows() {
+        try {
+            FilmRows.Builder builder = new FilmRows.Builder();
+            return catalog.read(() -> {
+                ResultSet rows = PreparedSparqlQuery.of(ALL_FILMS_QUERY).execute(catalog.getDataset(), BindingFactory.empty());
+                while (rows.hasNext()) {
+                    QuerySolution solution = rows.nextSolution();
+                    builder.addRow(RdfValues.text(solution, "film"), mapRow(solution));
+                }
+                return builder.build();
+            });
         } catch (Exception e) {
-            throw new RuntimeException("Greška pri izvršavanju SPARQL upita: " + e.getMessage());
+            throw new RuntimeException("Greška pri učitavanju filmova: " + e.getMessage());
         }
-        
-        return results;
     }
-    
-    private String getStringValue(QuerySolution solution, String varName) {
-        if (solution.get(varName) != null) {
-            String value = solution.get(varName).toString();
-            // Uklanja RDF tip podataka (npr. "1999"^^xsd:gYear -> "1999")
-            if (value.contains("^^")) {
-                value = value.substring(0, value.indexOf("^^"));
+
+    private FacetIndex buildFacetIndex() {
+        try {
+            FacetIndex.Builder builder = new FacetIndex.Builder(getFilmRows());
+            return catalog.read(() -> {
+                ResultSet values = PreparedSparqlQuery.of(FILM_FACETS_QUERY).execute(catalog.getDataset(), BindingFactory.empty());
+                while (values.hasNext()) {
+                    QuerySolution solution = values.nextSolution();
+                    String svojstvo = solution.getResource("svojstvo").getLocalName();
+                    for (FacetQuery.Facet facet : FacetQuery.Facet.values()) {
+                        if (facet.getProperty().equals(svojstvo)) {
+                            builder.addValue(RdfValues.text(solution, "film"), facet, facetLabel(solution));
+                        }
+                    }
+                }
+
+                ResultSet numbers = PreparedSparqlQuery.of(FILM_NUMBERS_QUERY).execute(catalog.getDataset(), BindingFactory.empty());
+                while (numbers.hasNext()) {
+                    QuerySolution solution = numbers.nextSolution();
+                    String filmId = RdfValues.text(solution, "film");
+                    builder.setNumber(filmId, FacetQuery.Range.GODINA, RdfValues.longValue(solution, "godina"));
+                    builder.setNumber(filmId, FacetQuery.Range.TRAJANJE, RdfValues.longValue(solution, "trajanje"));
+                    builder.setNumber(filmId, FacetQuery.Range.BUDZET, RdfValues.longValue(solution, "budzet"));
+                    builder.setNumber(filmId, FacetQuery.Range.ZARADA, RdfValues.longValue(solution, "zarada"));
+                }
+                return builder.build();
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Greška pri izgradnji indeksa faseta: " + e.getMessage());
+        }
+    }
+
+    // Žanrovi, studiji, jezici i države imaju rdfs:label, a osobe ime i prezime
+    private static String facetLabel(QuerySolution solution) {
+        String label = RdfValues.text(solution, "label");
+        if (!RdfValues.NEMA_VREDNOSTI.equals(label)) {
+            return label;
+        }
+        String ime = RdfValues.personName(solution, "ime", "prezime");
+        if (!RdfValues.NEMA_VREDNOSTI.equals(ime)) {
+            return ime;
+        }
+        RDFNode vrednost = solution.get("vrednost");
+        return vrednost.isURIResource() ? vrednost.asResource().getLocalName() : RdfValues.text(solution, "vrednost");
+    }
+
+    public List<FilmResult> searchByGenre(String zanr) {
+        try (Stream<FilmResult> rezultati = streamByGenre(zanr)) {
+            return rezultati.collect(Collectors.toList());
+        }
+    }
+
+    public List<FilmResult> searchByGenreAndYear(String zanr, int godina) {
+        try (Stream<FilmResult> rezultati = streamByGenreAndYear(zanr, godina)) {
+            return rezultati.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Svi rezultati pretrage po žanru kao lenj tok, iz jednog upita, pa se
+     * strane čitaju redom iz istog toka umesto novim upitom po strani. Tok
+     * drži otvoren upit i read transakciju, pa ga treba zatvoriti (npr. kroz
+     * try-with-resources) kada se više ne čita. Rezultati do
+     * {@value #MAX_CACHED_ROWS} redova se, kada se pročitaju do kraja, keširaju.
+     */
+    public Stream<FilmResult> streamByGenre(String zanr) {
+        return cachedStream(genreKey(zanr), () -> openGenreStream(zanr));
+    }
+
+    public Stream<FilmResult> streamByGenreAndYear(String zanr, int godina) {
+        return cachedStream(genreAndYearKey(zanr, godina), () -> openGenreAndYearStream(zanr, godina));
+    }
+
+    // Prosleđuje redove iz izvora i pamti ih, pa se rezultat upisuje u keš tek kad je pročitan do kraja
+    private Stream<FilmResult> cachedStream(String key, Supplier<Stream<FilmResult>> source) {
+        if (resultCache == null) {
+            return source.get();
+        }
+        List<FilmResult> cached = resultCache.get(key);
+        if (cached != null) {
+            return cached.stream();
+        }
+
+        long generation = resultCache.currentGeneration();
+        Stream<FilmResult> stream = source.get();
+        Iterator<FilmResult> rows = stream.iterator();
+        Iterator<FilmResult> pamceni = new Iterator<>() {
+            private List<FilmResult> procitano = new ArrayList<>();
+
+            @Override
+            public boolean hasNext() {
+                boolean hasNext = rows.hasNext();
+                if (!hasNext && procitano != null) {
+                    resultCache.put(key, Collections.unmodifiableList(procitano), generation);
+                    procitano = null;
+                }
+                return hasNext;
             }
-            // Uklanja navodne znake
-            if (value.startsWith("\"") && value.endsWith("\"")) {
-                value = value.substring(1, value.length() - 1);
+
+            @Override
+            public FilmResult next() {
+                FilmResult row = rows.next();
+                if (procitano != null && procitano.size() < MAX_CACHED_ROWS) {
+                    procitano.add(row);
+                } else {
+                    // Veći rezultati se ne keširaju
+                    procitano = null;
+                }
+                return row;
             }
-            return value;
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pamceni, Spliterator.ORDERED), false)
+                            .onClose(stream::close);
+    }
+
+    // Ključ koristi isti normalizovani žanr kao i indeks i LCASE u SPARQL upitu
+    private static String genreKey(String zanr) {
+        return "zanr|" + GenreYearIndex.normalizeGenre(zanr);
+    }
+
+    private static String genreAndYearKey(String zanr, int godina) {
+        return "zanrGodina|" + GenreYearIndex.normalizeGenre(zanr) + "|" + godina;
+    }
+
+    private Stream<FilmResult> openGenreStream(String zanr) {
+        GenreYearIndex index = genreIndex;
+        if (index != null) {
+            return index.streamByGenre(zanr);
         }
-        return "N/A";
+        Binding parametri = BindingFactory.binding(TRAZENI_ZANR, NodeFactory.createLiteral(zanr));
+        return streamQuery(GENRE_QUERY, parametri);
     }
-    
-    private String buildDirectorName(QuerySolution solution) {
-        String ime = getStringValue(solution, "reziserIme");
-        String prezime = getStringValue(solution, "reziserPrezime");
-        
-        if (!"N/A".equals(ime) && !"N/A".equals(prezime)) {
-            return ime + " " + prezime;
-        } else if (!"N/A".equals(ime)) {
-            return ime;
-        } else if (!"N/A".equals(prezime)) {
-            return prezime;
+
+    private Stream<FilmResult> openGenreAndYearStream(String zanr, int godina) {
+        GenreYearIndex index = genreIndex;
+        if (index != null) {
+            return index.streamByGenreAndYear(zanr, godina);
+        }
+        Binding parametri = BindingFactory.binding(
+            TRAZENI_ZANR, NodeFactory.createLiteral(zanr),
+            TRAZENA_GODINA, NodeValue.makeInteger(godina).asNode());
+        return streamQuery(GENRE_AND_YEAR_QUERY, parametri);
+    }
+
+    private Stream<FilmResult> streamQuery(String sparqlQuery, Binding parametri) {
+        Runnable endRead = catalog.beginRead();
+        try {
+            ResultSet resultSet = PreparedSparqlQuery.of(sparqlQuery).execute(catalog.getDataset(), parametri);
+
+            Iterator<FilmResult> rows = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return resultSet.hasNext();
+                }
+
+                @Override
+                public FilmResult next() {
+                    return mapRow(resultSet.nextSolution());
+                }
+            };
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                                .onClose(() -> {
+                                    resultSet.close();
+                                    endRead.run();
+                                });
+        } catch (Exception e) {
+            endRead.run();
+            throw new RuntimeException("Greška pri izvršavanju SPARQL upita: " + e.getMessage());
         }
-        return "N/A";
     }
-}
\ No newline at end of file
+    
+    private FilmResult mapRow(QuerySolution solution) {
+        return new FilmResult(
+            RdfValues.text(solution, "naslov"),
+            RdfValues.intValue(solution, "godina"),
+            RdfValues.intValue(solution, "trajanje"),
+            RdfValues.longValue(solution, "budzet"),
+            RdfValues.directorName(solution),
+            RdfValues.text(solution, "sviZanrovi"));
+    }
+}
@@ -0,0 +1,341 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generator sintetičkog kataloga filmova za testove opterećenja i memorije.
+ * <p>
+ * Piše validan TTL po rečniku iz {@code film_sema.ttl}, sa istim žanrovima,
+ * jezicima, državama i studijima kao {@code film_podaci.ttl}, pa se rezultat
+ * učitava umesto njega preko {@code -Dfilm.katalog.podaci=<fajl>}.
+ * Raspodele su približno realne: više novijih filmova, nekoliko dominantnih
+ * žanrova, broj filmova po režiseru i glumcu po stepenom zakonu (mnogo
+ * ljudi sa jednim filmom, retki sa nekoliko desetina, nezavisno od veličine
+ * kataloga) i log-normalni budžeti i zarade. Isti seed uvek daje isti fajl.
+ * <pre>
+ * java SyntheticCatalogGenerator &lt;broj filmova&gt; &lt;izlazni .ttl&gt; [seed]
+ * </pre>
+ */
+public class SyntheticCatalogGenerator {
+
+    private static final long DEFAULT_SEED = 42L;
+
+    private static final String[] GENRES = {
+        "Drama", "Komedija", "Akcija", "Triler", "Romantika", "Horor", "SciFi", "Avantura", "Animirani", "Western"
+    };
+    private static final String[] GENRE_LABELS = {
+        "Drama", "Komedija", "Akcija", "Triler", "Romantika", "Horor", "Naučna fantastika", "Avantura", "Animirani", "Western"
+    };
+    private static final double[] GENRE_WEIGHTS = { 28, 16, 12, 11, 8, 7, 6, 6, 4, 2 };
+
+    private static final String[][] LANGUAGES = {
+        {"Engleski", "Engleski", "en"}, {"Srpski", "Srpski", "sr"}, {"Italijanski", "Italijanski", "it"},
+        {"Francuski", "Francuski", "fr"}, {"Nemacki", "Nemački", "de"}
+    };
+    private static final String[][] COUNTRIES = {
+        {"USA", "Sjedinjene Američke Države", "US"}, {"Srbija", "Srbija", "RS"}, {"Italija", "Italija", "IT"},
+        {"Francuska", "Francuska", "FR"}, {"Nemacka", "Nemačka", "DE"}
+    };
+    // Jezik i država idu u paru (npr. srpski film iz Srbije)
+    private static final double[] ORIGIN_WEIGHTS = { 70, 6, 8, 9, 7 };
+
+    private static final String[][] STUDIOS = {
+        {"WarnerBros", "Warner Bros."}, {"Universal", "Universal Pictures"}, {"Paramount", "Paramount Pictures"},
+        {"Disney", "Walt Disney Studios"}, {"Sony", "Sony Pictures"}, {"MGM", "Metro-Goldwyn-Mayer"}
+    };
+    private static final double[] STUDIO_WEIGHTS = { 22, 20, 18, 17, 15, 8 };
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Linda", "Robert", "Emma", "Michael", "Sofia", "David", "Anna", "Marko", "Jelena",
+        "Nikola", "Milica", "Stefan", "Ana", "Luca", "Giulia", "Pierre", "Claire", "Hans", "Greta", "Peter", "Laura",
+        "Thomas", "Olivia", "Daniel", "Isabel", "Miloš", "Đorđe", "Dušan", "Tijana", "Marco", "Chiara", "Louis", "Léa"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Brown", "Miller", "Davis", "Wilson", "Anderson", "Taylor", "Moore", "Clark", "Petrović",
+        "Jovanović", "Nikolić", "Marković", "Đorđević", "Stojanović", "Ilić", "Rossi", "Russo", "Ferrari", "Bianchi",
+        "Martin", "Bernard", "Dubois", "Laurent", "Müller", "Schmidt", "Schneider", "Fischer", "Weber", "Hughes"
+    };
+
+    private static final String[] TITLE_ADJECTIVES = {
+        "Poslednji", "Tihi", "Crveni", "Mračni", "Izgubljeni", "Večni", "Hladni", "Divlji", "Skriveni", "Zlatni",
+        "Noćni", "Beli", "Daleki", "Slomljeni", "Treći", "Prvi", "Čudni", "Sunčani", "Gvozdeni", "Lažni"
+    };
+    private static final String[] TITLE_NOUNS = {
+        "grad", "vitez", "put", "čovek", "san", "rat", "lovac", "talas", "vetar", "kralj", "svet", "most", "zločin",
+        "čuvar", "brod", "šampion", "povratak", "beg", "plamen", "horizont", "đavo", "anđeo", "stranac", "dom"
+    };
+    private static final String[] ORIGINAL_ADJECTIVES = {
+        "Last", "Silent", "Red", "Dark", "Lost", "Eternal", "Cold", "Wild", "Hidden", "Golden",
+        "Night", "White", "Distant", "Broken", "Third", "First", "Strange", "Sunny", "Iron", "False"
+    };
+    private static final String[] ORIGINAL_NOUNS = {
+        "City", "Knight", "Road", "Man", "Dream", "War", "Hunter", "Wave", "Wind", "King", "World", "Bridge", "Crime",
+        "Keeper", "Ship", "Champion", "Return", "Escape", "Flame", "Horizon", "Devil", "Angel", "Stranger", "Home"
+    };
+
+    private static final int MAX_DIRECTOR_FILMS = 40;
+    private static final int MAX_ACTOR_FILMS = 120;
+    private static final int MAX_ACTORS_PER_FILM = 5;
+
+    private final int filmCount;
+    private final SplittableRandom random;
+    private final int[] directorOfFilm;
+    private final byte[] actorsPerFilm;
+    private final int[] actorSlots;
+    private final int directorCount;
+    private final int actorCount;
+
+    public SyntheticCatalogGenerator(int filmCount, long seed) {
+        if (filmCount <= 0) {
+            throw new IllegalArgumentException("Broj filmova mora biti pozitivan, a uneto je: " + filmCount);
+        }
+        this.filmCount = filmCount;
+        this.random = new SplittableRandom(seed);
+
+        this.directorOfFilm = new int[filmCount];
+        this.directorCount = assignCareers(directorOfFilm, MAX_DIRECTOR_FILMS, 1.9);
+
+        this.actorsPerFilm = new byte[filmCount];
+        long slots = 0;
+        for (int i = 0; i < filmCount; i++) {
+            actorsPerFilm[i] = (byte) (1 + random.nextInt(MAX_ACTORS_PER_FILM));
+            slots += actorsPerFilm[i];
+        }
+        this.actorSlots = new int[Math.toIntExact(slots)];
+        this.actorCount = assignCareers(actorSlots, MAX_ACTOR_FILMS, 1.7);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Upotreba: java SyntheticCatalogGenerator <broj filmova> <izlazni .ttl> [seed]");
+            return;
+        }
+        int filmCount = Integer.parseInt(args[0]);
+        Path output = Path.of(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+        long start = System.nanoTime();
+        try (Writer out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            new SyntheticCatalogGenerator(filmCount, seed).write(out);
+        }
+        System.out.printf("Generisano %d filmova u %s (%.1f MB) za %d ms%n",
+                          filmCount, output, Files.size(output) / (1024.0 * 1024.0),
+                          (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void write(Writer writer) throws IOException {
+        BufferedWriter out = writer instanceof BufferedWriter ? (BufferedWriter) writer : new BufferedWriter(writer);
+        writePrefixes(out);
+        writeReferenceData(out);
+        writePeople(out);
+        out.write("\n########### FILMOVI ###########\n");
+        int actorSlot = 0;
+        for (int i = 0; i < filmCount; i++) {
+            writeFilm(out, i, actorSlot);
+            actorSlot += actorsPerFilm[i];
+        }
+        out.flush();
+    }
+
+    private void writePrefixes(BufferedWriter out) throws IOException {
+        out.write("@prefix : <" + FilmCatalog.NAMESPACE + "> .\n");
+        out.write("@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n");
+        out.write("@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .\n");
+    }
+
+    private void writeReferenceData(BufferedWriter out) throws IOException {
+        out.write("\n########### ŽANROVI ###########\n");
+        for (int i = 0; i < GENRES.length; i++) {
+            out.write(":" + GENRES[i] + " a :Zanr ; rdfs:label " + literal(GENRE_LABELS[i]) + "@sr .\n");
+        }
+        out.write("\n########### JEZIK ###########\n");
+        for (String[] language : LANGUAGES) {
+            out.write(":" + language[0] + " a :Jezik ; rdfs:label " + literal(language[1]) + "@sr ; :jezikKod " + literal(language[2]) + " .\n");
+        }
+        out.write("\n########### DRŽAVE ###########\n");
+        for (String[] country : COUNTRIES) {
+            out.write(":" + country[0] + " a :Drzava ; rdfs:label " + literal(country[1]) + "@sr ; :drzavniKod " + literal(country[2]) + " .\n");
+        }
+        out.write("\n########### STUDIJI ###########\n");
+        for (String[] studio : STUDIOS) {
+            out.write(":" + studio[0] + " a :Studio ; rdfs:label " + literal(studio[1]) + "@sr .\n");
+        }
+    }
+
+    private void writePeople(BufferedWriter out) throws IOException {
+        out.write("\n########### OSOBE ###########\n");
+        for (int i = 0; i < directorCount; i++) {
+            writePerson(out, directorId(i), "Reziser", i, 1920 + random.nextInt(80));
+        }
+        for (int i = 0; i < actorCount; i++) {
+            writePerson(out, actorId(i), "Glumac", i, 1920 + random.nextInt(85));
+        }
+    }
+
+    private void writePerson(BufferedWriter out, String id, String type, int index, int birthYear) throws IOException {
+        String ime = FIRST_NAMES[index % FIRST_NAMES.length];
+        int combination = index / FIRST_NAMES.length;
+        String prezime = LAST_NAMES[combination % LAST_NAMES.length];
+        int initial = combination / LAST_NAMES.length;
+        if (initial > 0) {
+            // Srednji inicijali da imena ostanu uglavnom jedinstvena i u velikim katalozima
+            ime += " " + initials(initial - 1);
+        }
+        out.write(":" + id + " a :" + type
+                  + " ; :licnoIme " + literal(ime)
+                  + " ; :prezime " + literal(prezime)
+                  + " ; :godinaRodjenja \"" + birthYear + "\"^^xsd:gYear .\n");
+    }
+
+    private static String initials(int value) {
+        StringBuilder initials = new StringBuilder();
+        do {
+            initials.append((char) ('A' + value % 26)).append('.');
+            value = value / 26 - 1;
+        } while (value >= 0);
+        return initials.toString();
+    }
+
+    private void writeFilm(BufferedWriter out, int index, int firstActorSlot) throws IOException {
+        int adjective = random.nextInt(TITLE_ADJECTIVES.length);
+        int noun = random.nextInt(TITLE_NOUNS.length);
+        // Bez broja bi se naslovi ponavljali već posle nekoliko stotina filmova
+        String suffix = filmCount > TITLE_ADJECTIVES.length * TITLE_NOUNS.length ? " " + (index + 1) : "";
+        int godina = sampleYear();
+        int[] zanrovi = sampleGenres();
+        boolean animirani = contains(zanrovi, Arrays.asList(GENRES).indexOf("Animirani"));
+        int trajanje = sampleDuration(animirani);
+        long budzet = sampleBudget(godina);
+        long zarada = Math.round(budzet * Math.exp(0.7 + random.nextGaussian() * 0.9) / 1000.0) * 1000;
+        int origin = sampleWeighted(ORIGIN_WEIGHTS);
+
+        out.write("\n:" + filmId(index) + " a :Film ;\n");
+        out.write("    :naslov " + literal(TITLE_ADJECTIVES[adjective] + " " + TITLE_NOUNS[noun] + suffix) + " ;\n");
+        out.write("    :izvorniNaslov " + literal("The " + ORIGINAL_ADJECTIVES[adjective] + " " + ORIGINAL_NOUNS[noun] + suffix) + " ;\n");
+        out.write("    :godinaIzdanja \"" + godina + "\"^^xsd:gYear ;\n");
+        out.write("    :trajanjeMinuta " + trajanje + " ;\n");
+        out.write("    :budzetUSD " + budzet + " ;\n");
+        out.write("    :zaradaUSD " + zarada + " ;\n");
+        for (int zanr : zanrovi) {
+            out.write("    :imaZanr :" + GENRES[zanr] + " ;\n");
+        }
+        out.write("    :rezirao :" + directorId(directorOfFilm[index]) + " ;\n");
+        int[] glumci = Arrays.copyOfRange(actorSlots, firstActorSlot, firstActorSlot + actorsPerFilm[index]);
+        for (int i = 0; i < glumci.length; i++) {
+            if (!contains(Arrays.copyOf(glumci, i), glumci[i])) {
+                out.write("    :glumi :" + actorId(glumci[i]) + " ;\n");
+            }
+        }
+        out.write("    :izvorniJezik :" + LANGUAGES[origin][0] + " ;\n");
+        out.write("    :zemljaPorijekla :" + COUNTRIES[origin][0] + " ;\n");
+        out.write("    :proizvedenoUStudiju :" + STUDIOS[sampleWeighted(STUDIO_WEIGHTS)][0] + " .\n");
+    }
+
+    // Eksponencijalno opadanje unazad od 2024: otprilike polovina filmova je iz poslednjih 17 godina
+    private int sampleYear() {
+        double yearsBack = -25.0 * Math.log(1.0 - random.nextDouble());
+        return (int) Math.max(1920, 2024 - Math.round(yearsBack));
+    }
+
+    private int[] sampleGenres() {
+        double p = random.nextDouble();
+        int count = p < 0.45 ? 1 : p < 0.85 ? 2 : 3;
+        int[] genres = new int[count];
+        int chosen = 0;
+        while (chosen < count) {
+            int genre = sampleWeighted(GENRE_WEIGHTS);
+            if (!contains(Arrays.copyOf(genres, chosen), genre)) {
+                genres[chosen++] = genre;
+            }
+        }
+        return genres;
+    }
+
+    private int sampleDuration(boolean animirani) {
+        double mean = animirani ? 90 : 112;
+        double minutes = mean + random.nextGaussian() * 20;
+        return (int) Math.round(Math.min(240, Math.max(70, minutes)));
+    }
+
+    // Log-normalni budžet sa medijanom oko 15 miliona USD danas, manji za starije filmove
+    private long sampleBudget(int godina) {
+        double inflation = Math.pow(0.965, 2024 - godina);
+        double budget = 15_000_000 * inflation * Math.exp(random.nextGaussian() * 1.2);
+        budget = Math.min(400_000_000, Math.max(100_000, budget));
+        return Math.round(budget / 1000.0) * 1000;
+    }
+
+    private int sampleWeighted(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < weights.length; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * Popunjava mesta (npr. režiju svakog filma) ljudima čiji je broj filmova
+     * {@code k} sa verovatnoćom srazmernom {@code k^-exponent}, do najviše
+     * {@code maxCareer}, pa meša raspored. Vraća broj potrebnih ljudi.
+     */
+    private int assignCareers(int[] slots, int maxCareer, double exponent) {
+        double[] weights = new double[maxCareer];
+        for (int k = 1; k <= maxCareer; k++) {
+            weights[k - 1] = Math.pow(k, -exponent);
+        }
+
+        int person = 0;
+        int filled = 0;
+        while (filled < slots.length) {
+            int career = Math.min(1 + sampleWeighted(weights), slots.length - filled);
+            Arrays.fill(slots, filled, filled + career, person);
+            filled += career;
+            person++;
+        }
+
+        for (int i = slots.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = slots[i];
+            slots[i] = slots[j];
+            slots[j] = tmp;
+        }
+        return person;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String filmId(int index) {
+        return "Film" + index;
+    }
+
+    private static String directorId(int index) {
+        return "Reziser" + index;
+    }
+
+    private static String actorId(int index) {
+        return "Glumac" + index;
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -1,3 +1,4 @@
+import java.util.Iterator;
 import java.util.List;
 
 public class TableFormatter {
@@ -21,11 +22,8 @@ public class TableFormatter {
         printSeparator(naslowWidth, zanroviWidth, godinaWidth, rezieerWidth, trajanjeWidth, budzetWidth);
         
         for (FilmResult film : filmovi) {
-            String trajanje = formatTrajanje(film.getTrajanje());
-            String budzet = formatBudzet(film.getBudzet());
-            
-            printRow(film.getNaslov(), film.getZanrovi(), film.getGodina(), film.getReziser(), 
-                    trajanje, budzet, naslowWidth, zanroviWidth, godinaWidth, rezieerWidth, 
+            printRow(film.getNaslov(), film.getZanrovi(), formatGodina(film), film.getReziser(), 
+                    formatTrajanje(film), formatBudzet(film), naslowWidth, zanroviWidth, godinaWidth, rezieerWidth, 
                     trajanjeWidth, budzetWidth);
         }
         
@@ -33,6 +31,46 @@ public class TableFormatter {
         System.out.println("Ukupno pronađeno: " + filmovi.size() + " filmova");
     }
 
+    /**
+     * Ispisuje sledeću stranu rezultata, najviše {@code velicinaStrane} redova,
+     * red po red kako pristižu iz iteratora; ostatak ostaje u iteratoru za
+     * sledeću stranu. Širine kolona su fiksne jer se ne zna unapred šta sve
+     * stiže. Vraća broj ispisanih filmova.
+     */
+    public static int printPage(Iterator<FilmResult> iterator, int velicinaStrane, int brojStrane) {
+        if (!iterator.hasNext()) {
+            if (brojStrane == 1) {
+                System.out.println("Nema rezultata za zadatu pretragu.");
+            }
+            return 0;
+        }
+
+        int naslowWidth = 25;
+        int zanroviWidth = 20;
+        int godinaWidth = 6;
+        int rezieerWidth = 18;
+        int trajanjeWidth = 8;
+        int budzetWidth = 12;
+
+        System.out.println("Strana " + brojStrane + ":");
+        printSeparator(naslowWidth, zanroviWidth, godinaWidth, rezieerWidth, trajanjeWidth, budzetWidth);
+        printRow("NASLOV", "ŽANROVI", "GODINA", "REŽISER", "TRAJANJE", "BUDŽET", 
+                naslowWidth, zanroviWidth, godinaWidth, rezieerWidth, trajanjeWidth, budzetWidth);
+        printSeparator(naslowWidth, zanroviWidth, godinaWidth, rezieerWidth, trajanjeWidth, budzetWidth);
+
+        int count = 0;
+        while (count < velicinaStrane && iterator.hasNext()) {
+            FilmResult film = iterator.next();
+            printRow(film.getNaslov(), film.getZanrovi(), formatGodina(film), film.getReziser(), 
+                    formatTrajanje(film), formatBudzet(film), 
+                    naslowWidth, zanroviWidth, godinaWidth, rezieerWidth, trajanjeWidth, budzetWidth);
+            count++;
+        }
+
+        printSeparator(naslowWidth, zanroviWidth, godinaWidth, rezieerWidth, trajanjeWidth, budzetWidth);
+        return count;
+    }
+
     private static void printSeparator(int... widths) {
         System.out.print("+");
         for (int width : widths) {
@@ -77,28 +115,28 @@ public class TableFormatter {
                 .orElse(10);
     }
 
-    private static String formatTrajanje(String trajanje) {
-        if ("N/A".equals(trajanje)) {
-            return "N/A";
+    private static String formatGodina(FilmResult film) {
+        return film.hasGodina() ? Integer.toString(film.getGodina()) : RdfValues.NEMA_VREDNOSTI;
+    }
+
+    private static String formatTrajanje(FilmResult film) {
+        if (!film.hasTrajanje()) {
+            return RdfValues.NEMA_VREDNOSTI;
         }
-        return trajanje + " min";
+        return film.getTrajanje() + " min";
     }
     
-    private static String formatBudzet(String budzet) {
-        if ("N/A".equals(budzet)) {
-            return "N/A";
+    private static String formatBudzet(FilmResult film) {
+        if (!film.hasBudzet()) {
+            return RdfValues.NEMA_VREDNOSTI;
         }
-        try {
-            long broj = Long.parseLong(budzet);
-            if (broj >= 1000000) {
-                return String.format("$%.1fM", broj / 1000000.0);
-            } else if (broj >= 1000) {
-                return String.format("$%.1fK", broj / 1000.0);
-            } else {
-                return "$" + broj;
-            }
-        } catch (NumberFormatException e) {
-            return budzet;
+        long broj = film.getBudzet();
+        if (broj >= 1000000) {
+            return String.format("$%.1fM", broj / 1000000.0);
+        } else if (broj >= 1000) {
+            return String.format("$%.1fK", broj / 1000.0);
+        } else {
+            return "$" + broj;
         }
     }
-}
\ No newline at end of file
+}
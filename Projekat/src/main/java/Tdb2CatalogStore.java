@@ -0,0 +1,236 @@
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.apache.jena.tdb2.loader.DataLoader;
+import org.apache.jena.tdb2.loader.LoaderFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Trajno TDB2 skladište kataloga na disku. Ontologija se bulk-učitava samo
+ * pri prvom pokretanju, a kasnija pokretanja direktno otvaraju postojeću bazu.
+ * Oznaka učitavanja pamti iz kojih je TTL fajlova skladište izgrađeno
+ * (putanja, veličina, vreme izmene i SHA-256 sadržaja), pa se baza briše i
+ * ponovo gradi čim se neki fajl promeni ili se zada drugi fajl sa podacima.
+ * Pri otvaranju se porede samo putanja, veličina i vreme izmene; sadržaj se
+ * čita samo kad se razlikuje jedino vreme izmene, pa topli start ne čita
+ * ulazne fajlove.
+ * <p>
+ * Gradi se samo u prazan direktorijum ili u direktorijum koji već sadrži
+ * TDB2 skladište; pri ponovnoj izgradnji brišu se samo fajlovi skladišta,
+ * a direktorijum sa bilo čim drugim se odbija.
+ */
+public class Tdb2CatalogStore {
+
+    private static final String LOADED_MARKER = "katalog.ucitan";
+    private static final String TDB2_LOCK = "tdb.lock";
+    // TDB2 čuva podatke u generacijama Data-0001, Data-0002, ...
+    private static final Pattern TDB2_DATA = Pattern.compile("Data-\\d+");
+
+    private final Path directory;
+    private final String[] resources;
+    private boolean rebuilt;
+
+    public Tdb2CatalogStore(Path directory, String[] resources) {
+        this.directory = directory;
+        this.resources = resources;
+    }
+
+    public DatasetGraph open() {
+        try {
+            String[] opisi = describeResources();
+            if (isStale(opisi)) {
+                clearStore();
+                DatasetGraph storage = DatabaseMgr.connectDatasetGraph(directory.toString());
+                writeMarker(opisi, bulkLoad(storage));
+                rebuilt = true;
+                return storage;
+            }
+            return DatabaseMgr.connectDatasetGraph(directory.toString());
+        } catch (IOException e) {
+            throw new RuntimeException("Greška pri otvaranju TDB2 skladišta " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ponovo učitava TTL fajlove u već otvoreno skladište. Oznaka se briše
+     * pre učitavanja i upisuje tek posle njega, pa se prekinuto ponovno
+     * učitavanje pri sledećem pokretanju prepoznaje i skladište gradi iznova.
+     */
+    public void reload(DatasetGraph storage) {
+        Path marker = directory.resolve(LOADED_MARKER);
+        try {
+            Files.deleteIfExists(marker);
+            String[] opisi = describeResources();
+            FilmCatalog.readOntology(storage, resources);
+            String[] sadrzaj = new String[resources.length];
+            for (int i = 0; i < resources.length; i++) {
+                sadrzaj[i] = CatalogResources.sha256(resources[i]);
+            }
+            writeMarker(opisi, sadrzaj);
+        } catch (IOException e) {
+            throw new RuntimeException("Greška pri ponovnom učitavanju TDB2 skladišta " + directory + ": "
+                                       + e.getMessage());
+        }
+    }
+
+    public boolean wasRebuilt() {
+        return rebuilt;
+    }
+
+    /**
+     * Skladište je zastarelo ako oznaka ne postoji ili se neki resurs
+     * razlikuje po putanji ili veličini. Ako se razlikuje samo vreme izmene,
+     * odlučuje SHA-256 sadržaja; kad je sadržaj isti, oznaka se ažurira da
+     * se fajl sledeći put ne bi ponovo čitao.
+     */
+    private boolean isStale(String[] opisi) throws IOException {
+        Path marker = directory.resolve(LOADED_MARKER);
+        if (!Files.isRegularFile(marker)) {
+            return true;
+        }
+        List<String> zapisano = Files.readAllLines(marker, StandardCharsets.UTF_8);
+        if (zapisano.size() != opisi.length) {
+            return true;
+        }
+        String[] sadrzaj = new String[opisi.length];
+        boolean dodirnuto = false;
+        for (int i = 0; i < opisi.length; i++) {
+            String red = zapisano.get(i);
+            int kraj = red.lastIndexOf('\t');
+            if (kraj < 0) {
+                return true;
+            }
+            String zapisanOpis = red.substring(0, kraj);
+            sadrzaj[i] = red.substring(kraj + 1);
+            if (zapisanOpis.equals(opisi[i])) {
+                continue;
+            }
+            // Opis se završava vremenom izmene; sve pre njega mora biti isto
+            if (!withoutLastField(zapisanOpis).equals(withoutLastField(opisi[i]))
+                    || !CatalogResources.sha256(resources[i]).equals(sadrzaj[i])) {
+                return true;
+            }
+            dodirnuto = true;
+        }
+        if (dodirnuto) {
+            writeMarker(opisi, sadrzaj);
+        }
+        return false;
+    }
+
+    private static String withoutLastField(String opis) {
+        return opis.substring(0, Math.max(0, opis.lastIndexOf('\t')));
+    }
+
+    // Jedan red po resursu: brzi opis i SHA-256 sadržaja, odvojeni tabom
+    private void writeMarker(String[] opisi, String[] sadrzaj) throws IOException {
+        StringBuilder oznaka = new StringBuilder();
+        for (int i = 0; i < opisi.length; i++) {
+            oznaka.append(opisi[i]).append('\t').append(sadrzaj[i]).append('\n');
+        }
+        Files.writeString(directory.resolve(LOADED_MARKER), oznaka.toString(), StandardCharsets.UTF_8);
+    }
+
+    private String[] describeResources() throws IOException {
+        String[] opisi = new String[resources.length];
+        for (int i = 0; i < resources.length; i++) {
+            opisi[i] = CatalogResources.describe(resources[i]);
+        }
+        return opisi;
+    }
+
+    // Vraća SHA-256 svakog resursa, izračunat u istom prolazu kroz fajl
+    private String[] bulkLoad(DatasetGraph storage) {
+        // Bez ispisa napretka učitavanja
+        DataLoader loader = LoaderFactory.parallelLoader(storage, (format, args) -> { });
+        loader.startBulk();
+        try {
+            StreamRDF destination = loader.stream();
+            String[] sadrzaj = new String[resources.length];
+            for (int i = 0; i < resources.length; i++) {
+                MessageDigest digest = CatalogResources.sha256();
+                try (InputStream in = new DigestInputStream(CatalogResources.open(resources[i]), digest)) {
+                    // Parser čita tok do kraja, pa digest obuhvata ceo fajl
+                    RDFParser.source(in).lang(Lang.TURTLE).parse(destination);
+                }
+                sadrzaj[i] = CatalogResources.hex(digest);
+            }
+            loader.finishBulk();
+            return sadrzaj;
+        } catch (Exception e) {
+            loader.finishException(e);
+            throw new RuntimeException("Greška pri bulk učitavanju u TDB2: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Briše postojeće skladište pre ponovne izgradnje. Direktorijum mora biti
+     * prazan ili sadržati samo TDB2 skladište (sa oznakom učitavanja ili bez
+     * nje, ako je prethodna izgradnja prekinuta); ostalo se ne dira.
+     */
+    private void clearStore() throws IOException {
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+            return;
+        }
+        if (!Files.isDirectory(directory)) {
+            throw new RuntimeException("Putanja za TDB2 skladište " + directory + " nije direktorijum");
+        }
+        boolean skladiste = false;
+        boolean drugo = false;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if (isStoreEntry(entry)) {
+                    skladiste = true;
+                } else {
+                    drugo = true;
+                }
+            }
+        }
+        if (drugo) {
+            throw new RuntimeException("Direktorijum " + directory + " nije prazan i ne sadrži samo TDB2 skladište"
+                                       + " kataloga; zadajte prazan ili nepostojeći direktorijum");
+        }
+        if (!skladiste) {
+            return;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                deleteStoreEntry(entry);
+            }
+        }
+    }
+
+    private static boolean isStoreEntry(Path entry) {
+        String name = entry.getFileName().toString();
+        if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+            return TDB2_DATA.matcher(name).matches();
+        }
+        return Files.isRegularFile(entry, LinkOption.NOFOLLOW_LINKS)
+            && (name.equals(LOADED_MARKER) || name.equals(TDB2_LOCK));
+    }
+
+    // Generacija podataka je TDB2 direktorijum, pa se briše ceo; simbolički linkovi se ne prate
+    private static void deleteStoreEntry(Path entry) throws IOException {
+        try (Stream<Path> paths = Files.walk(entry)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
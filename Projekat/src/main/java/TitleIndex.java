@@ -0,0 +1,213 @@
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indeks naslova za brzu pretragu po delu naslova.
+ * <p>
+ * Naslovi se normalizuju (mala slova, bez dijakritika, ćirilica u latinicu,
+ * {@code đ} kao {@code dj}), pa se "Šošenk", "sosenk" i "Шошенк" podudaraju.
+ * Pogoci se traže redom:
+ * <ol>
+ *   <li>naslovi koji počinju upitom (binarna pretraga sortiranih naslova),</li>
+ *   <li>naslovi u kojima neka reč počinje upitom (sortirani sufiksi od svake reči),</li>
+ *   <li>naslovi koji sadrže upit bilo gde (trigrami, najkraća lista pa provera).</li>
+ * </ol>
+ * Prva dva koraka koštaju {@code O(log n + limit)}, nezavisno od veličine kataloga.
+ */
+public class TitleIndex<T> {
+
+    private static final int NGRAM = 3;
+
+    private static final Map<Character, String> CYRILLIC = new HashMap<>();
+
+    static {
+        String[] latin = {"a", "b", "v", "g", "d", "dj", "e", "z", "z", "i", "j", "k", "l", "lj", "m", "n", "nj",
+                          "o", "p", "r", "s", "t", "c", "u", "f", "h", "c", "c", "dz", "s"};
+        String cyrillic = "абвгдђежзијклљмнњопрстћуфхцчџш";
+        for (int i = 0; i < cyrillic.length(); i++) {
+            CYRILLIC.put(cyrillic.charAt(i), latin[i]);
+        }
+    }
+
+    private final List<T> items;
+    private final String[] titles;
+    private final int[] titleOwners;
+    private final String[] titleKeys;
+    private final int[] titleKeyEntries;
+    private final String[] wordKeys;
+    private final int[] wordKeyEntries;
+    private final Map<String, int[]> trigrams;
+
+    private TitleIndex(Builder<T> builder) {
+        this.items = builder.items;
+        int count = builder.titles.size();
+        this.titles = builder.titles.toArray(new String[0]);
+        this.titleOwners = builder.owners.stream().mapToInt(Integer::intValue).toArray();
+
+        Integer[] byTitle = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            byTitle[i] = i;
+        }
+        Arrays.sort(byTitle, Comparator.comparing(i -> titles[i]));
+        this.titleKeys = new String[count];
+        this.titleKeyEntries = new int[count];
+        for (int i = 0; i < count; i++) {
+            titleKeys[i] = titles[byTitle[i]];
+            titleKeyEntries[i] = byTitle[i];
+        }
+
+        List<String> suffixes = new ArrayList<>();
+        List<Integer> suffixEntries = new ArrayList<>();
+        Map<String, List<Integer>> grams = new HashMap<>();
+        for (int entry = 0; entry < count; entry++) {
+            String title = titles[entry];
+            for (int i = title.indexOf(' '); i >= 0; i = title.indexOf(' ', i + 1)) {
+                suffixes.add(title.substring(i + 1));
+                suffixEntries.add(entry);
+            }
+            for (int i = 0; i + NGRAM <= title.length(); i++) {
+                List<Integer> posting = grams.computeIfAbsent(title.substring(i, i + NGRAM), k -> new ArrayList<>());
+                if (posting.isEmpty() || posting.get(posting.size() - 1) != entry) {
+                    posting.add(entry);
+                }
+            }
+        }
+
+        Integer[] bySuffix = new Integer[suffixes.size()];
+        for (int i = 0; i < bySuffix.length; i++) {
+            bySuffix[i] = i;
+        }
+        Arrays.sort(bySuffix, Comparator.comparing(suffixes::get));
+        this.wordKeys = new String[bySuffix.length];
+        this.wordKeyEntries = new int[bySuffix.length];
+        for (int i = 0; i < bySuffix.length; i++) {
+            wordKeys[i] = suffixes.get(bySuffix[i]);
+            wordKeyEntries[i] = suffixEntries.get(bySuffix[i]);
+        }
+
+        this.trigrams = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : grams.entrySet()) {
+            trigrams.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    public static String normalize(String text) {
+        StringBuilder latin = new StringBuilder(text.length());
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            String replacement = c == 'đ' ? "dj" : CYRILLIC.get(c);
+            latin.append(replacement != null ? replacement : String.valueOf(c));
+        }
+        String withoutMarks = Normalizer.normalize(latin, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return withoutMarks.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /**
+     * Vraća najviše {@code limit} različitih stavki čiji naslov odgovara upitu,
+     * bolji pogoci prvi.
+     */
+    public List<T> search(String query, int limit) {
+        String key = normalize(query);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Set<Integer> found = new LinkedHashSet<>();
+        collectPrefix(titleKeys, titleKeyEntries, key, found, limit);
+        collectPrefix(wordKeys, wordKeyEntries, key, found, limit);
+        if (found.size() < limit && key.length() >= NGRAM) {
+            collectContaining(key, found, limit);
+        }
+
+        List<T> result = new ArrayList<>(found.size());
+        for (int owner : found) {
+            result.add(items.get(owner));
+        }
+        return result;
+    }
+
+    private void collectPrefix(String[] keys, int[] entries, String prefix, Set<Integer> found, int limit) {
+        int i = lowerBound(keys, prefix);
+        while (i < keys.length && found.size() < limit && keys[i].startsWith(prefix)) {
+            found.add(titleOwners[entries[i]]);
+            i++;
+        }
+    }
+
+    private void collectContaining(String key, Set<Integer> found, int limit) {
+        int[] shortest = null;
+        for (int i = 0; i + NGRAM <= key.length(); i++) {
+            int[] posting = trigrams.get(key.substring(i, i + NGRAM));
+            if (posting == null) {
+                return;
+            }
+            if (shortest == null || posting.length < shortest.length) {
+                shortest = posting;
+            }
+        }
+        for (int entry : shortest) {
+            if (found.size() >= limit) {
+                return;
+            }
+            if (titles[entry].contains(key)) {
+                found.add(titleOwners[entry]);
+            }
+        }
+    }
+
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public static class Builder<T> {
+        private final List<T> items = new ArrayList<>();
+        private final List<String> titles = new ArrayList<>();
+        private final List<Integer> owners = new ArrayList<>();
+
+        /**
+         * Dodaje stavku pod jednim ili više naslova (npr. naslov i izvorni naslov).
+         */
+        public Builder<T> add(T item, List<String> itemTitles) {
+            int owner = items.size();
+            items.add(item);
+            Set<String> unique = new LinkedHashSet<>();
+            for (String title : itemTitles) {
+                String normalized = normalize(title);
+                if (!normalized.isEmpty()) {
+                    unique.add(normalized);
+                }
+            }
+            for (String title : unique) {
+                titles.add(title);
+                owners.add(owner);
+            }
+            return this;
+        }
+
+        public TitleIndex<T> build() {
+            return new TitleIndex<>(this);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Ograničen izbor {@code k} najboljih ocena iz toka parova (indeks, ocena),
+ * u dva primitivna niza fiksne veličine: memorija je O(k) bez obzira na
+ * broj ponuđenih elemenata. Koren min-heap-a je trenutno najslabiji
+ * izabrani element, pa se većina ponuda odbije jednim poređenjem.
+ * <p>
+ * Redosled je isti kao stabilno opadajuće sortiranje: među jednakim
+ * ocenama prednost ima manji indeks, bez obzira na redosled ponuda.
+ */
+public class TopKHeap {
+
+    private final int[] indices;
+    private final double[] scores;
+    private int size;
+
+    public TopKHeap(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Broj rezultata ne može biti negativan: " + k);
+        }
+        this.indices = new int[k];
+        this.scores = new double[k];
+    }
+
+    public int capacity() {
+        return indices.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Najslabija ocena koja je još među izabranima, ili -∞ dok heap nije pun;
+     * ponuda sa manjom ocenom se odbija, a sa jednakom ako joj je indeks
+     * veći od {@link #thresholdIndex()}.
+     */
+    public double threshold() {
+        if (indices.length == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return size < indices.length ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /** Indeks najslabijeg izabranog elementa; važi samo kad je heap pun. */
+    public int thresholdIndex() {
+        return indices[0];
+    }
+
+    /**
+     * Da li bi ponuda sa ocenom {@code score} i indeksom {@code index} ušla
+     * među izabrane.
+     */
+    public boolean accepts(int index, double score) {
+        if (size < indices.length) {
+            return true;
+        }
+        return size > 0 && worse(scores[0], indices[0], score, index);
+    }
+
+    public void offer(int index, double score) {
+        if (size < indices.length) {
+            int i = size++;
+            // Podizanje ka korenu dok je novi element lošiji od roditelja
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(score, index, scores[parent], indices[parent])) {
+                    break;
+                }
+                indices[i] = indices[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            indices[i] = index;
+            scores[i] = score;
+        } else if (accepts(index, score)) {
+            siftDown(index, score);
+        }
+    }
+
+    private void siftDown(int index, double score) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && worse(scores[child + 1], indices[child + 1], scores[child], indices[child])) {
+                child++;
+            }
+            if (!worse(scores[child], indices[child], score, index)) {
+                break;
+            }
+            indices[i] = indices[child];
+            scores[i] = scores[child];
+            i = child;
+        }
+        indices[i] = index;
+        scores[i] = score;
+    }
+
+    // Da li je (scoreA, indexA) lošiji od (scoreB, indexB) u konačnom redosledu
+    private static boolean worse(double scoreA, int indexA, double scoreB, int indexB) {
+        return scoreA < scoreB || (scoreA == scoreB && indexA > indexB);
+    }
+
+    /**
+     * Prazni heap i vraća izabrane indekse od najboljeg ka najslabijem;
+     * ocene istim redom se upisuju u {@code sortedScores}.
+     */
+    public int[] drainSorted(double[] sortedScores) {
+        int n = size;
+        int[] sorted = new int[n];
+        for (int k = n - 1; k >= 0; k--) {
+            sorted[k] = indices[0];
+            sortedScores[k] = scores[0];
+            size--;
+            if (size > 0) {
+                siftDown(indices[size], scores[size]);
+            }
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * {@link CaseBlockingIndex} mora davati iste preporuke kao ocenjivanje celog
+ * {@link ColumnarCaseBase}-a: iste filmove, istim redom i sa bit za bit
+ * istom sličnošću, za svaki film malog kataloga. Kako vreme raste sa
+ * veličinom kataloga meri {@code CbrRetrievalBenchmark} (parametar
+ * {@code blokovi}).
+ */
+class CaseBlockingIndexTest {
+
+    private static final int BROJ_FILMOVA = 2_000;
+
+    private static ColumnarCaseBase baza;
+    private static CaseBlockingIndex index;
+
+    @BeforeAll
+    static void createIndex() throws Exception {
+        try (CbrRecommendationService service = new CbrRecommendationService(TestCatalog.load(BROJ_FILMOVA))) {
+            baza = new ColumnarCaseBase(service.getAllMovies(), CbrRecommendationService.createSimilarityConfig(),
+                                        CbrRecommendationService.GODINA_INTERVAL);
+        }
+        index = new CaseBlockingIndex(baza);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 1, 20, 100, 0})
+    void indexMatchesExhaustiveScoring(int k) {
+        for (int film = 0; film < baza.size(); film++) {
+            TopKHeap ocekivano = new TopKHeap(k);
+            baza.topK(film, ocekivano);
+            TopKHeap dobijeno = new TopKHeap(k);
+            index.topK(film, dobijeno);
+
+            double[] ocekivaneOcene = new double[ocekivano.size()];
+            int[] ocekivaniFilmovi = ocekivano.drainSorted(ocekivaneOcene);
+            double[] dobijeneOcene = new double[dobijeno.size()];
+            int[] dobijeniFilmovi = dobijeno.drainSorted(dobijeneOcene);
+            assertArrayEquals(ocekivaniFilmovi, dobijeniFilmovi, "Preporuke za film " + film + ", k = " + k);
+            assertArrayEquals(ocekivaneOcene, dobijeneOcene, "Sličnosti za film " + film + ", k = " + k);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Filmovi dodati u katalog posle pokretanja servisa: posle
+ * {@link FilmCatalog#reload()} graf suseda se dopunjuje samo redovima novih
+ * filmova, a isti je kao graf izračunat iz početka. Novi filmovi imaju
+ * identifikatore koji se po abecedi nalaze između postojećih, pa upit
+ * kataloga ne vraća stare filmove kao početak liste.
+ */
+class CbrNeighborGraphReloadTest {
+
+    private static final int BROJ_FILMOVA = 1_000;
+    private static final int SUSEDI = 20;
+    private static final int DODATO = 30;
+
+    private static Path katalog;
+
+    @BeforeAll
+    static void writeCatalog() throws Exception {
+        katalog = Path.of("target", "test-katalog-dopuna.ttl");
+        Files.createDirectories(katalog.getParent());
+        try (Writer out = Files.newBufferedWriter(katalog, StandardCharsets.UTF_8)) {
+            new SyntheticCatalogGenerator(BROJ_FILMOVA, 42L).write(out);
+        }
+        System.setProperty(FilmCatalog.DATA_FILE_PROPERTY, katalog.toString());
+        System.setProperty(CbrRecommendationService.GRAPH_NEIGHBOURS_PROPERTY, String.valueOf(SUSEDI));
+    }
+
+    @AfterAll
+    static void clearProperties() {
+        System.clearProperty(FilmCatalog.DATA_FILE_PROPERTY);
+        System.clearProperty(CbrRecommendationService.GRAPH_NEIGHBOURS_PROPERTY);
+    }
+
+    @Test
+    void addedFilmsExtendNeighbourGraph() throws Exception {
+        FilmCatalog catalog = FilmCatalog.getInstance();
+        try (CbrRecommendationService service = new CbrRecommendationService(catalog)) {
+            int pre = service.getNeighborGraph().size();
+
+            StringBuilder dopuna = new StringBuilder("\n");
+            for (int i = 0; i < DODATO; i++) {
+                // "Film5_novi" je po abecedi posle "Film599", a pre "Film6"
+                dopuna.append(":Film5_novi").append(i).append(" a :Film ; :naslov \"Novi film ").append(i)
+                      .append("\" ; :godinaIzdanja \"").append(1990 + i).append("\"^^xsd:gYear ; :imaZanr :Drama ;")
+                      .append(" :rezirao :Reziser").append(i).append(" .\n");
+            }
+            Files.writeString(katalog, dopuna, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            catalog.reload();
+
+            CbrNeighborGraph graf = service.getNeighborGraph();
+            assertEquals(pre + DODATO, graf.size());
+            assertTrue(graf.getComputedRows() < graf.size(),
+                       "Računato " + graf.getComputedRows() + " od " + graf.size() + " redova");
+
+            CbrNeighborGraph ceo = CbrNeighborGraph.create(graf.getCaseBase(), SUSEDI, null);
+            for (int i = 0; i < ceo.size(); i++) {
+                int[] susedi = new int[SUSEDI];
+                double[] ocene = new double[SUSEDI];
+                int broj = ceo.neighbors(i, susedi, ocene);
+                int[] dobijeniSusedi = new int[SUSEDI];
+                double[] dobijeneOcene = new double[SUSEDI];
+                int dobijeno = graf.neighbors(i, dobijeniSusedi, dobijeneOcene);
+                assertArrayEquals(Arrays.copyOf(susedi, broj), Arrays.copyOf(dobijeniSusedi, dobijeno),
+                                  "Susedi filma " + i);
+                assertArrayEquals(Arrays.copyOf(ocene, broj), Arrays.copyOf(dobijeneOcene, dobijeno),
+                                  "Sličnosti suseda filma " + i);
+            }
+        }
+    }
+}
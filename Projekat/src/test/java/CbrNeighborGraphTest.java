@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link CbrNeighborGraph} mora davati iste susede kao ocenjivanje celog
+ * kataloga: iste filmove, istim redom i sa bit za bit istom sličnošću.
+ * Graf za katalog bez poslednjih filmova, dopunjen njima, mora biti isti
+ * kao graf izračunat iz početka, i u memoriji i iz fajla. Brzinu pravljenja
+ * i dopune meri {@code CbrNeighborGraphBenchmark}.
+ */
+class CbrNeighborGraphTest {
+
+    private static final int BROJ_FILMOVA = 1_000;
+    private static final int SUSEDI = 20;
+    private static final int DODATO = 50;
+
+    private static FilmCatalog catalog;
+    private static List<MovieCase> filmovi;
+    private static ColumnarCaseBase baza;
+    private static ColumnarCaseBase pocetak;
+    private static CbrNeighborGraph graf;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void createGraph() throws Exception {
+        catalog = TestCatalog.load(BROJ_FILMOVA);
+        try (CbrRecommendationService service = new CbrRecommendationService(catalog)) {
+            filmovi = service.getAllMovies();
+        }
+        baza = caseBase(filmovi);
+        pocetak = caseBase(filmovi.subList(0, filmovi.size() - DODATO));
+        graf = CbrNeighborGraph.create(baza, SUSEDI, null);
+    }
+
+    @Test
+    void matchesExhaustiveScoring() {
+        for (int i = 0; i < baza.size(); i++) {
+            TopKHeap heap = new TopKHeap(SUSEDI);
+            baza.topK(i, heap);
+            double[] ocene = new double[heap.size()];
+            int[] susedi = heap.drainSorted(ocene);
+            assertNeighbours(graf, i, susedi, ocene);
+        }
+    }
+
+    @Test
+    void updateInMemoryMatchesFullBuild() {
+        CbrNeighborGraph dopunjen = CbrNeighborGraph.create(pocetak, SUSEDI, null).update(baza);
+        assertSameGraph(dopunjen);
+    }
+
+    @Test
+    void extendFromFileMatchesFullBuild() {
+        Path fajl = dir.resolve("cbr-graf.bin");
+        CbrNeighborGraph.create(pocetak, SUSEDI, fajl);
+        CbrNeighborGraph izFajla = CbrNeighborGraph.create(baza, SUSEDI, fajl);
+        assertSameGraph(izFajla);
+
+        CbrNeighborGraph mapiran = CbrNeighborGraph.create(baza, SUSEDI, fajl);
+        assertEquals(0, mapiran.getComputedRows(), "Neizmenjen katalog se ne računa ponovo");
+        assertSameGraph(mapiran);
+    }
+
+    @Test
+    void serviceRecommendationsMatchWithAndWithoutGraph() {
+        System.setProperty(CbrRecommendationService.GRAPH_NEIGHBOURS_PROPERTY, String.valueOf(SUSEDI));
+        try (CbrRecommendationService saGrafom = new CbrRecommendationService(catalog)) {
+            System.clearProperty(CbrRecommendationService.GRAPH_NEIGHBOURS_PROPERTY);
+            try (CbrRecommendationService bezGrafa = new CbrRecommendationService(catalog)) {
+                for (MovieCase film : filmovi) {
+                    assertEquals(ColumnarCaseBaseConformanceTest.opis(bezGrafa.findSimilarMovies(film.getId())),
+                                 ColumnarCaseBaseConformanceTest.opis(saGrafom.findSimilarMovies(film.getId())),
+                                 "Preporuke za " + film.getId());
+                }
+            }
+        } finally {
+            System.clearProperty(CbrRecommendationService.GRAPH_NEIGHBOURS_PROPERTY);
+        }
+    }
+
+    private static void assertSameGraph(CbrNeighborGraph dobijeno) {
+        for (int i = 0; i < graf.size(); i++) {
+            int[] susedi = new int[SUSEDI];
+            double[] ocene = new double[SUSEDI];
+            int broj = graf.neighbors(i, susedi, ocene);
+            assertNeighbours(dobijeno, i, Arrays.copyOf(susedi, broj), Arrays.copyOf(ocene, broj));
+        }
+    }
+
+    private static void assertNeighbours(CbrNeighborGraph graf, int film, int[] ocekivaniSusedi,
+                                         double[] ocekivaneOcene) {
+        int[] susedi = new int[graf.getNeighbourCount()];
+        double[] ocene = new double[graf.getNeighbourCount()];
+        int broj = graf.neighbors(film, susedi, ocene);
+        assertArrayEquals(ocekivaniSusedi, Arrays.copyOf(susedi, broj), "Susedi filma " + film);
+        assertArrayEquals(ocekivaneOcene, Arrays.copyOf(ocene, broj), "Sličnosti suseda filma " + film);
+    }
+
+    private static ColumnarCaseBase caseBase(List<MovieCase> filmovi) {
+        return new ColumnarCaseBase(filmovi, CbrRecommendationService.createSimilarityConfig(),
+                                    CbrRecommendationService.GODINA_INTERVAL);
+    }
+}
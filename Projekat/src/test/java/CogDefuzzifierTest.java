@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Skalarna i vektorska COG defuzzifikacija u odnosu na generisani
+ * evaluator, na slučajnim ocenama. Skalarna mora biti identična, a
+ * vektorska se sme razlikovati samo zbog drugačijeg redosleda sabiranja.
+ * Vektorska se proverava samo u build-u u kome je prevedena i uz
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+class CogDefuzzifierTest {
+
+    private static final double TOLERANCIJA = 1e-9;
+    private static final int BROJ_OCENA = 50_000;
+
+    @Test
+    void scalarMatchesGeneratedEvaluator() {
+        CogDefuzzifier skalarni = CogDefuzzifier.scalar();
+        double[] aktivacije = new double[skalarni.getTermCount()];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < BROJ_OCENA; i++) {
+            double[] o = randomRatings(random);
+            FilmKvalitetEvaluator.activations(o[0], o[1], o[2], o[3], o[4], aktivacije);
+            assertEquals(FilmKvalitetEvaluator.evaluate(o[0], o[1], o[2], o[3], o[4]), skalarni.defuzzify(aktivacije));
+        }
+    }
+
+    @Test
+    void vectorMatchesGeneratedEvaluatorWithinRounding() {
+        CogDefuzzifier vektorski = CogDefuzzifier.vector();
+        assumeTrue(vektorski != null, "Vector API nije dostupan");
+        double[] aktivacije = new double[vektorski.getTermCount()];
+        SplittableRandom random = new SplittableRandom(42);
+        double najvecaRazlika = 0.0;
+        for (int i = 0; i < BROJ_OCENA; i++) {
+            double[] o = randomRatings(random);
+            FilmKvalitetEvaluator.activations(o[0], o[1], o[2], o[3], o[4], aktivacije);
+            najvecaRazlika = Math.max(najvecaRazlika, Math.abs(vektorski.defuzzify(aktivacije)
+                                      - FilmKvalitetEvaluator.evaluate(o[0], o[1], o[2], o[3], o[4])));
+        }
+        assertTrue(najvecaRazlika <= TOLERANCIJA, "Najveća razlika: " + najvecaRazlika);
+    }
+
+    private static double[] randomRatings(SplittableRandom random) {
+        double[] o = new double[5];
+        for (int k = 0; k < o.length; k++) {
+            o[k] = 1.0 + random.nextDouble() * 9.0;
+        }
+        return o;
+    }
+}
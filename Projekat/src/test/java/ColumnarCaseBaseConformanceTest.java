@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link ColumnarCaseBase} mora davati iste preporuke kao jCOLIBRI
+ * {@code NNScoringMethod}: iste filmove, istim redom i sa bit za bit istom
+ * sličnošću. Proverava se svaki deseti film malog kataloga, za nekoliko
+ * vrednosti {@code k}; brzinu meri {@code CbrRetrievalBenchmark}.
+ */
+class ColumnarCaseBaseConformanceTest {
+
+    private static final int BROJ_FILMOVA = 1_000;
+    private static final int BROJ_UPITA = 100;
+
+    private static CbrRecommendationService jcolibri;
+    private static CbrRecommendationService kolone;
+
+    @BeforeAll
+    static void createServices() throws Exception {
+        FilmCatalog catalog = TestCatalog.load(BROJ_FILMOVA);
+        System.setProperty(CbrRecommendationService.BLOCKING_PROPERTY, "false");
+        System.setProperty(CbrRecommendationService.COLUMNAR_PROPERTY, "false");
+        jcolibri = new CbrRecommendationService(catalog);
+        System.setProperty(CbrRecommendationService.COLUMNAR_PROPERTY, "true");
+        kolone = new CbrRecommendationService(catalog);
+    }
+
+    @AfterAll
+    static void closeServices() {
+        jcolibri.close();
+        kolone.close();
+        System.clearProperty(CbrRecommendationService.COLUMNAR_PROPERTY);
+        System.clearProperty(CbrRecommendationService.BLOCKING_PROPERTY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 1, 20, 0})
+    void columnarMatchesJcolibri(int k) {
+        List<MovieCase> filmovi = kolone.getAllMovies();
+        int korak = Math.max(1, filmovi.size() / BROJ_UPITA);
+        for (int i = 0; i < filmovi.size(); i += korak) {
+            String id = filmovi.get(i).getId();
+            assertEquals(k, jcolibri.findSimilarMovies(id, k).size(), "Broj preporuka za " + id);
+            assertEquals(opis(jcolibri.findSimilarMovies(id, k)), opis(kolone.findSimilarMovies(id, k)),
+                         "Preporuke za " + id + ", k = " + k);
+        }
+    }
+
+    // Film i tačna sličnost svake preporuke, redom
+    static String opis(List<CbrRecommendationService.MovieRecommendation> preporuke) {
+        StringBuilder sb = new StringBuilder();
+        for (CbrRecommendationService.MovieRecommendation preporuka : preporuke) {
+            sb.append(preporuka.getMovieCase().getId()).append('=')
+              .append(Double.doubleToLongBits(preporuka.getSimilarity())).append(' ');
+        }
+        return sb.toString();
+    }
+}
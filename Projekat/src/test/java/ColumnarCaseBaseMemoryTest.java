@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+import ucm.gaia.jcolibri.cbrcore.CBRCase;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Zadržani heap po slučaju pre i posle kolonske baze, nad istim filmovima:
+ * slučajevi sa sopstvenim kopijama svih vrednosti u jCOLIBRI omotačima
+ * (raspored pre {@link ColumnarCaseBase}) prema slučajevima sa deljenim
+ * vrednostima i kolonama {@link ColumnarCaseBase}-a. Meri se zauzeti heap
+ * posle punog GC-a dok su izmereni objekti dostupni i pošto se puste, pa
+ * se broji samo ono što struktura stvarno zadržava, a ne sve što je usput
+ * alocirano.
+ */
+class ColumnarCaseBaseMemoryTest {
+
+    private static final int BROJ_FILMOVA = 5_000;
+
+    @Test
+    void sharedColumnarStorageRetainsLessThanCopies() throws Exception {
+        List<MovieCase> izvor;
+        try (CbrRecommendationService service = new CbrRecommendationService(TestCatalog.load(BROJ_FILMOVA))) {
+            izvor = service.getAllMovies();
+        }
+
+        // Razlika zauzeća dok struktura postoji i pošto se pusti, pa ranije smeće ne ulazi u merenje
+        List<CBRCase> kopije = copiedCases(izvor);
+        long saKopijama = usedHeapAfterGc();
+        Reference.reachabilityFence(kopije);
+        kopije = null;
+        long pre = saKopijama - usedHeapAfterGc();
+
+        ColumnarCaseBase baza = sharedCaseBase(izvor);
+        long saBazom = usedHeapAfterGc();
+        Reference.reachabilityFence(baza);
+        baza = null;
+        long posle = saBazom - usedHeapAfterGc();
+
+        System.out.printf("Slučajeva: %d, pre %d bajtova po slučaju, posle %d bajtova po slučaju%n",
+                          izvor.size(), pre / izvor.size(), posle / izvor.size());
+        assertTrue(posle < pre, "Deljene vrednosti i kolone zadržavaju manje od kopija: " + posle + " >= " + pre);
+    }
+
+    // Svaki slučaj sa svojim primerkom svake vrednosti, kao pre rečnika
+    private static List<CBRCase> copiedCases(List<MovieCase> izvor) {
+        List<CBRCase> slucajevi = new ArrayList<>(izvor.size());
+        for (MovieCase film : izvor) {
+            MovieCase kopija = new MovieCase(copy(film.getId()), copy(film.getNaslov()), copy(film.getZanr()),
+                                             copy(film.getGodina()), copy(film.getReziser()));
+            kopija.setSviZanrovi(copy(film.getSviZanrovi()));
+            CBRCase slucaj = new CBRCase();
+            slucaj.setDescription(kopija);
+            slucajevi.add(slucaj);
+        }
+        return slucajevi;
+    }
+
+    // Jedan nov primerak svake različite vrednosti, kao pri učitavanju iz ontologije
+    private static ColumnarCaseBase sharedCaseBase(List<MovieCase> izvor) {
+        Map<Object, Object> recnik = new HashMap<>();
+        List<MovieCase> filmovi = new ArrayList<>(izvor.size());
+        for (MovieCase film : izvor) {
+            MovieCase kopija = new MovieCase(copy(film.getId()), shared(recnik, film.getNaslov()),
+                                             shared(recnik, film.getZanr()), shared(recnik, film.getGodina()),
+                                             shared(recnik, film.getReziser()));
+            kopija.setSviZanrovi(shared(recnik, film.getSviZanrovi()));
+            filmovi.add(kopija);
+        }
+        ColumnarCaseBase baza = new ColumnarCaseBase(filmovi, CbrRecommendationService.createSimilarityConfig(),
+                                                     CbrRecommendationService.GODINA_INTERVAL);
+        recnik.clear();
+        return baza;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T shared(Map<Object, Object> recnik, T vrednost) {
+        return vrednost == null ? null : (T) recnik.computeIfAbsent(vrednost, ColumnarCaseBaseMemoryTest::copy);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T vrednost) {
+        if (vrednost instanceof String) {
+            // new String(String) bi delio niz znakova sa originalom
+            return (T) new String(((String) vrednost).toCharArray());
+        }
+        if (vrednost instanceof Integer) {
+            // Godine su van keša Integer.valueOf (-128..127), pa je ovo nov objekat
+            return (T) Integer.valueOf((Integer) vrednost);
+        }
+        return vrednost;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Nekoliko prolaza, dok se zauzeće ne ustali
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Pronalaženje slučaja po ID-ju i deljenje vrednosti koje se ponavljaju
+ * među slučajevima. Koliko memorije baza zadržava po slučaju meri
+ * {@link ColumnarCaseBaseMemoryTest}.
+ */
+class ColumnarCaseBaseTest {
+
+    private static final int BROJ_FILMOVA = 2_000;
+
+    private static CbrRecommendationService service;
+
+    @BeforeAll
+    static void createService() throws Exception {
+        service = new CbrRecommendationService(TestCatalog.load(BROJ_FILMOVA));
+    }
+
+    @AfterAll
+    static void closeService() {
+        service.close();
+    }
+
+    @Test
+    void findsEveryCaseById() {
+        List<MovieCase> filmovi = service.getAllMovies();
+        ColumnarCaseBase baza = caseBase(filmovi);
+        for (int i = 0; i < filmovi.size(); i++) {
+            assertEquals(i, baza.indexOf(filmovi.get(i).getId()), filmovi.get(i).getId());
+        }
+        assertEquals(-1, baza.indexOf(FilmCatalog.NAMESPACE + "NepostojeciFilm"));
+    }
+
+    @Test
+    void duplicateIdResolvesToFirstCase() {
+        List<MovieCase> filmovi = List.of(movie("a", "Prvi"), movie("b", "Drugi"), movie("a", "Treći"));
+        ColumnarCaseBase baza = caseBase(filmovi);
+        assertEquals(0, baza.indexOf("a"));
+        assertEquals(1, baza.indexOf("b"));
+        assertEquals("Prvi", baza.get(baza.indexOf("a")).getNaslov());
+    }
+
+    @Test
+    void repeatedValuesAreShared() {
+        Map<Object, Object> prvi = new HashMap<>();
+        for (MovieCase film : service.getAllMovies()) {
+            for (Object vrednost : new Object[] { film.getNaslov(), film.getZanr(), film.getSviZanrovi(),
+                                                  film.getReziser(), film.getGodina() }) {
+                if (vrednost != null) {
+                    assertSame(prvi.computeIfAbsent(vrednost, v -> v), vrednost, "Vrednost " + vrednost);
+                }
+            }
+        }
+    }
+
+    private static ColumnarCaseBase caseBase(List<MovieCase> filmovi) {
+        return new ColumnarCaseBase(filmovi, CbrRecommendationService.createSimilarityConfig(),
+                                    CbrRecommendationService.GODINA_INTERVAL);
+    }
+
+    private static MovieCase movie(String id, String naslov) {
+        MovieCase film = new MovieCase(id, naslov, "Drama", 2000, "Režiser");
+        film.setSviZanrovi("Drama");
+        return film;
+    }
+}
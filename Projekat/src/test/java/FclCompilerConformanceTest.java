@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Generisani {@link FilmKvalitetEvaluator} mora davati isti izlaz kao
+ * jFuzzyLogic interpreter. Ulazi su sve kombinacije prelomnih tačaka
+ * funkcija pripadnosti (gde su greške najverovatnije), celobrojna mreža i
+ * slučajne ocene.
+ */
+class FclCompilerConformanceTest {
+
+    private static final double TOLERANCIJA = 1e-9;
+
+    private static final double[] PRELOMNE_TACKE = { 1.0, 2.5, 3.5, 4.0, 7.0, 8.5, 10.0 };
+
+    private static final double[] MREZA = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+    private static final int BROJ_SLUCAJNIH = 20_000;
+
+    private static FuzzyEvaluationService interpreter;
+
+    private double najvecaRazlika;
+    private double[] najgoriUlaz;
+
+    @BeforeAll
+    static void createInterpreter() {
+        System.setProperty(FuzzyEvaluationService.COMPILED_PROPERTY, "false");
+        interpreter = new FuzzyEvaluationService();
+    }
+
+    @AfterAll
+    static void clearProperties() {
+        interpreter.close();
+        System.clearProperty(FuzzyEvaluationService.COMPILED_PROPERTY);
+    }
+
+    @Test
+    void matchesInterpreterAtMembershipBreakpoints() {
+        allCombinations(PRELOMNE_TACKE);
+        assertWithinTolerance();
+    }
+
+    @Test
+    void matchesInterpreterOnIntegerGrid() {
+        allCombinations(MREZA);
+        assertWithinTolerance();
+    }
+
+    @Test
+    void matchesInterpreterOnRandomRatings() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < BROJ_SLUCAJNIH; i++) {
+            double[] o = new double[5];
+            for (int k = 0; k < o.length; k++) {
+                o[k] = 1.0 + random.nextDouble() * 9.0;
+            }
+            compare(o);
+        }
+        assertWithinTolerance();
+    }
+
+    private void allCombinations(double[] vrednosti) {
+        int n = vrednosti.length;
+        for (int kombinacija = 0; kombinacija < Math.pow(n, 5); kombinacija++) {
+            int ostatak = kombinacija;
+            double[] o = new double[5];
+            for (int k = 0; k < o.length; k++) {
+                o[k] = vrednosti[ostatak % n];
+                ostatak /= n;
+            }
+            compare(o);
+        }
+    }
+
+    private void compare(double[] o) {
+        double ocekivano = interpreter.evaluateFilm(o[0], o[1], o[2], o[3], o[4]).getNumericValue();
+        double dobijeno = FilmKvalitetEvaluator.evaluate(o[0], o[1], o[2], o[3], o[4]);
+        double razlika = Math.abs(ocekivano - dobijeno);
+        if (!(razlika <= najvecaRazlika)) {
+            najvecaRazlika = Double.isNaN(razlika) ? Double.POSITIVE_INFINITY : razlika;
+            najgoriUlaz = o;
+        }
+    }
+
+    private void assertWithinTolerance() {
+        assertTrue(najvecaRazlika <= TOLERANCIJA,
+                   () -> "Razlika " + najvecaRazlika + " za ulaz " + Arrays.toString(najgoriUlaz));
+    }
+}
@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Istovremena fuzzy ocena: iste ulaze ocenjuje redom jedna nit, pa zatim
+ * više niti nad zajedničkim servisom, svaka drugim redosledom. Svaki
+ * rezultat mora biti identičan serijskom, i sa interpreterom i sa
+ * generisanim evaluatorom. Propusnost meri {@code FuzzyEvaluationBenchmark}.
+ */
+class FuzzyEvaluationServiceConcurrencyTest {
+
+    private static final int BROJ_NITI = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int BROJ_OCENA = 2_000;
+    private static final int PONAVLJANJA = 3;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(FuzzyEvaluationService.COMPILED_PROPERTY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void parallelEvaluationMatchesSerial(boolean kompajlirano) throws Exception {
+        System.setProperty(FuzzyEvaluationService.COMPILED_PROPERTY, String.valueOf(kompajlirano));
+        SplittableRandom random = new SplittableRandom(42);
+        double[][] ocene = new double[BROJ_OCENA][5];
+        for (double[] ocena : ocene) {
+            for (int i = 0; i < ocena.length; i++) {
+                ocena[i] = 1.0 + random.nextDouble() * 9.0;
+            }
+        }
+
+        try (FuzzyEvaluationService service = new FuzzyEvaluationService()) {
+            double[] serijski = new double[BROJ_OCENA];
+            for (int i = 0; i < BROJ_OCENA; i++) {
+                serijski[i] = evaluate(service, ocene[i]);
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(BROJ_NITI);
+            int razlike = 0;
+            try {
+                for (int p = 0; p < PONAVLJANJA; p++) {
+                    List<Future<Integer>> futures = new ArrayList<>();
+                    for (int t = 0; t < BROJ_NITI; t++) {
+                        int nit = t;
+                        futures.add(executor.submit(() -> {
+                            int greske = 0;
+                            // Niti idu kroz sve ulaze sa različitim pomakom, pa se stalno preklapaju
+                            for (int k = 0; k < BROJ_OCENA; k++) {
+                                int i = (k + nit * 7919) % BROJ_OCENA;
+                                if (Double.compare(evaluate(service, ocene[i]), serijski[i]) != 0) {
+                                    greske++;
+                                }
+                            }
+                            return greske;
+                        }));
+                    }
+                    for (Future<Integer> future : futures) {
+                        razlike += future.get();
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertEquals(0, razlike, "Broj paralelnih ocena različitih od serijskih");
+        }
+    }
+
+    private static double evaluate(FuzzyEvaluationService service, double[] o) {
+        return service.evaluateFilm(o[0], o[1], o[2], o[3], o[4]).getNumericValue();
+    }
+}
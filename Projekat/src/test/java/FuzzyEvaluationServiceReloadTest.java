@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ponovno učitavanje FCL-a: greška pri pravljenju nove baze pravila
+ * ostavlja prethodnu bazu, a nit koja prati fajl nastavlja da radi, pa se
+ * sledeća izmena učitava. Greška se izaziva neispravnom veličinom tabele
+ * ocena, koja se pravi tek kad FCL odgovara generisanom evaluatoru.
+ */
+class FuzzyEvaluationServiceReloadTest {
+
+    private static final long CEKANJE_MS = 10_000;
+
+    @TempDir
+    Path dir;
+
+    private Path fcl;
+    private String generisani;
+
+    @BeforeEach
+    void writeModifiedFcl() throws Exception {
+        try (InputStream in = CatalogResources.open("film_fuzzy.fcl")) {
+            generisani = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // Drugačiji tekst od onog iz kog je generisan evaluator, pa se pravila interpretiraju
+        fcl = dir.resolve("film_fuzzy.fcl");
+        Files.writeString(fcl, generisani + "\n// izmena\n");
+        System.setProperty(FuzzyEvaluationService.FCL_PROPERTY, fcl.toString());
+        System.setProperty(FuzzyEvaluationService.LOOKUP_TABLE_POINTS_PROPERTY, "1");
+    }
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(FuzzyEvaluationService.FCL_PROPERTY);
+        System.clearProperty(FuzzyEvaluationService.LOOKUP_TABLE_POINTS_PROPERTY);
+    }
+
+    @Test
+    void failedRuleBaseKeepsPreviousRules() throws Exception {
+        try (FuzzyEvaluationService service = new FuzzyEvaluationService()) {
+            // Bez niti koja prati fajl, da pravila učitava samo ovaj test
+            service.close();
+            assertFalse(service.isCompiled());
+            double ocena = service.evaluateFilm(7, 8, 6, 5, 9).getNumericValue();
+
+            Files.writeString(fcl, generisani);
+            assertFalse(service.reloadRules(), "Tabela sa jednom tačkom se ne može napraviti");
+            assertFalse(service.isCompiled());
+            assertEquals(ocena, service.evaluateFilm(7, 8, 6, 5, 9).getNumericValue());
+
+            System.clearProperty(FuzzyEvaluationService.LOOKUP_TABLE_POINTS_PROPERTY);
+            assertTrue(service.reloadRules());
+            assertTrue(service.isCompiled());
+        }
+    }
+
+    @Test
+    void watcherSurvivesFailedReload() throws Exception {
+        try (FuzzyEvaluationService service = new FuzzyEvaluationService()) {
+            Files.writeString(fcl, generisani);
+            Thread.sleep(1_000);
+            assertFalse(service.isCompiled());
+
+            // Isti tekst ponovo: učitava se samo ako nit koja prati fajl još radi
+            System.clearProperty(FuzzyEvaluationService.LOOKUP_TABLE_POINTS_PROPERTY);
+            Files.writeString(fcl, generisani);
+            long rok = System.currentTimeMillis() + CEKANJE_MS;
+            while (!service.isCompiled() && System.currentTimeMillis() < rok) {
+                Thread.sleep(50);
+            }
+            assertTrue(service.isCompiled(), "Izmena posle neuspelog učitavanja je učitana");
+        }
+    }
+}
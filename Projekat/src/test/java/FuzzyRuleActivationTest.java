@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Imena i tekstovi pravila u objašnjenju ocene moraju pripadati stepenu uz
+ * koji su prikazani. Interpreter ih čita iz jFuzzyLogic pravila, a
+ * generisani evaluator iz {@code ruleNames()}/{@code ruleTexts()}, pa
+ * zakomentarisana pravila u FCL-u ne pomeraju imena u odnosu na stepene.
+ */
+class FuzzyRuleActivationTest {
+
+    private static final int BROJ_OCENA = 200;
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(FuzzyEvaluationService.FCL_PROPERTY);
+        System.clearProperty(FuzzyEvaluationService.COMPILED_PROPERTY);
+    }
+
+    @Test
+    void compiledRuleNamesMatchGeneratedEvaluator() {
+        try (FuzzyEvaluationService service = new FuzzyEvaluationService()) {
+            List<FuzzyEvaluationService.RuleActivation> aktivacije = service.explain(7, 8, 6, 5, 9).getActivations();
+            assertEquals(Arrays.asList(FilmKvalitetEvaluator.ruleNames()), imena(aktivacije));
+            assertEquals(Arrays.asList(FilmKvalitetEvaluator.ruleTexts()),
+                         aktivacije.stream().map(FuzzyEvaluationService.RuleActivation::getText).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void commentedRulesDoNotShiftInterpretedNames() throws Exception {
+        String fcl;
+        try (InputStream in = CatalogResources.open("film_fuzzy.fcl")) {
+            fcl = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String izmenjen = fcl.replace("    RULE 1 :",
+                                      "    // RULE 0 : IF rezija IS losa THEN kvalitet IS los;\n"
+                                      + "    (* RULE 00 : IF gluma IS losa\n"
+                                      + "                 THEN kvalitet IS los; *)\n"
+                                      + "    RULE 1 :");
+        Path fajl = dir.resolve("film_fuzzy.fcl");
+        Files.writeString(fajl, izmenjen);
+
+        SplittableRandom random = new SplittableRandom(42);
+        try (FuzzyEvaluationService generisani = new FuzzyEvaluationService()) {
+            System.setProperty(FuzzyEvaluationService.FCL_PROPERTY, fajl.toString());
+            System.setProperty(FuzzyEvaluationService.COMPILED_PROPERTY, "false");
+            try (FuzzyEvaluationService interpreter = new FuzzyEvaluationService()) {
+                for (int i = 0; i < BROJ_OCENA; i++) {
+                    double[] ulaz = new double[5];
+                    for (int k = 0; k < ulaz.length; k++) {
+                        ulaz[k] = 1.0 + random.nextDouble() * 9.0;
+                    }
+                    List<FuzzyEvaluationService.RuleActivation> ocekivano =
+                        generisani.explain(ulaz[0], ulaz[1], ulaz[2], ulaz[3], ulaz[4]).getActivations();
+                    List<FuzzyEvaluationService.RuleActivation> dobijeno =
+                        interpreter.explain(ulaz[0], ulaz[1], ulaz[2], ulaz[3], ulaz[4]).getActivations();
+
+                    assertEquals(imena(ocekivano), imena(dobijeno));
+                    for (int r = 0; r < ocekivano.size(); r++) {
+                        assertEquals(ocekivano.get(r).getDegree(), dobijeno.get(r).getDegree(), 1e-12,
+                                     "Pravilo " + ocekivano.get(r).getName());
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> imena(List<FuzzyEvaluationService.RuleActivation> aktivacije) {
+        return aktivacije.stream().map(FuzzyEvaluationService.RuleActivation::getName).collect(Collectors.toList());
+    }
+}
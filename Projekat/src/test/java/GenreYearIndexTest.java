@@ -0,0 +1,76 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Pretraga kroz {@link GenreYearIndex} mora vratiti iste redove kao SPARQL
+ * upit, istim redosledom, za svaki žanr malog kataloga, bez obzira na
+ * velika i mala slova u nazivu žanra.
+ */
+class GenreYearIndexTest {
+
+    private static final int BROJ_FILMOVA = 1_000;
+
+    private static SparqlQueryService indeks;
+    private static SparqlQueryService sparql;
+    private static Set<String> zanrovi;
+
+    @BeforeAll
+    static void createServices() throws Exception {
+        FilmCatalog catalog = TestCatalog.load(BROJ_FILMOVA);
+        System.setProperty(SparqlQueryService.CACHE_SIZE_PROPERTY, "0");
+        indeks = new SparqlQueryService(catalog);
+        System.setProperty(SparqlQueryService.GENRE_INDEX_PROPERTY, "false");
+        sparql = new SparqlQueryService(catalog);
+        zanrovi = new TreeSet<>(indeks.facetedSearch(FacetQuery.builder().build(), 0, 0)
+                                      .getFacetCounts(FacetQuery.Facet.ZANR).keySet());
+    }
+
+    @AfterAll
+    static void closeServices() {
+        indeks.close();
+        sparql.close();
+        System.clearProperty(SparqlQueryService.CACHE_SIZE_PROPERTY);
+        System.clearProperty(SparqlQueryService.GENRE_INDEX_PROPERTY);
+    }
+
+    @Test
+    void genreSearchMatchesSparqlRowForRow() {
+        assertFalse(zanrovi.isEmpty());
+        for (String zanr : zanrovi) {
+            for (String upit : List.of(zanr, zanr.toUpperCase(Locale.ROOT))) {
+                assertEquals(opis(sparql.searchByGenre(upit)), opis(indeks.searchByGenre(upit)), "Žanr " + upit);
+            }
+        }
+        assertEquals(List.of(), indeks.searchByGenre("Nepostojeći žanr"));
+    }
+
+    @Test
+    void genreAndYearSearchMatchesSparqlRowForRow() {
+        for (String zanr : zanrovi) {
+            for (int godina = 1990; godina <= 2020; godina += 3) {
+                assertEquals(opis(sparql.searchByGenreAndYear(zanr, godina)),
+                             opis(indeks.searchByGenreAndYear(zanr, godina)), "Žanr " + zanr + ", godina " + godina);
+            }
+        }
+    }
+
+    // Sva polja svakog reda, redom
+    private static List<String> opis(List<FilmResult> redovi) {
+        List<String> opis = new ArrayList<>();
+        for (FilmResult red : redovi) {
+            opis.add(red.getNaslov() + "|" + red.getGodina() + "|" + red.getTrajanje() + "|" + red.getBudzet()
+                     + "|" + red.getReziser() + "|" + red.getZanrovi());
+        }
+        return opis;
+    }
+}
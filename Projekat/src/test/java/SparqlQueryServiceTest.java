@@ -0,0 +1,127 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Strane pretrage se čitaju redom iz jednog toka, pa zajedno moraju dati
+ * ceo rezultat, bez preklapanja i preskakanja, i kroz indeks i kroz SPARQL.
+ * Rezultat se kešira tek kad je tok pročitan do kraja. Isto važi za
+ * fasetnu pretragu, čiji se brojevi po fasetama biraju bez sortiranja svih
+ * vrednosti.
+ */
+class SparqlQueryServiceTest {
+
+    private static final int BROJ_FILMOVA = 1_000;
+    private static final int STRANA = 10;
+
+    private static FilmCatalog catalog;
+
+    @BeforeAll
+    static void loadCatalog() throws Exception {
+        catalog = TestCatalog.load(BROJ_FILMOVA);
+    }
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(SparqlQueryService.GENRE_INDEX_PROPERTY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void pagesFromOneStreamMakeTheWholeResult(boolean indeks) {
+        System.setProperty(SparqlQueryService.GENRE_INDEX_PROPERTY, String.valueOf(indeks));
+        try (SparqlQueryService service = new SparqlQueryService(catalog)) {
+            List<FilmResult> ceo = service.searchByGenre("Drama");
+            assertTrue(ceo.size() > STRANA, "Rezultat ima više strana");
+
+            List<FilmResult> strane = new ArrayList<>();
+            try (Stream<FilmResult> rezultati = service.streamByGenre("Drama")) {
+                Iterator<FilmResult> iterator = rezultati.iterator();
+                while (iterator.hasNext()) {
+                    for (int i = 0; i < STRANA && iterator.hasNext(); i++) {
+                        strane.add(iterator.next());
+                    }
+                }
+            }
+            assertEquals(ceo, strane);
+        }
+    }
+
+    @Test
+    void cachesOnlyFullyReadResults() {
+        try (SparqlQueryService service = new SparqlQueryService(catalog)) {
+            int godina = 2005;
+            try (Stream<FilmResult> rezultati = service.streamByGenreAndYear("Drama", godina)) {
+                rezultati.limit(1).count();
+            }
+            List<FilmResult> ceo = service.searchByGenreAndYear("Drama", godina);
+            assertTrue(ceo.size() > 1);
+            assertEquals(0, service.getCacheStatistics().getHits(), "Delimično pročitan tok se ne kešira");
+
+            assertEquals(ceo, service.searchByGenreAndYear("Drama", godina));
+            assertEquals(1, service.getCacheStatistics().getHits());
+        }
+    }
+
+    @Test
+    void facetPagesMakeTheWholeResult() {
+        try (SparqlQueryService service = new SparqlQueryService(catalog)) {
+            FacetQuery upit = FacetQuery.builder()
+                                        .value(FacetQuery.Facet.ZANR, "Drama")
+                                        .value(FacetQuery.Facet.ZANR, "Komedija")
+                                        .range(FacetQuery.Range.GODINA, 1990, 2015)
+                                        .build();
+            List<FilmResult> ceo = service.facetedSearch(upit, 0, Long.MAX_VALUE).getFilmovi();
+            assertTrue(ceo.size() > STRANA, "Rezultat ima više strana");
+
+            try (Stream<FilmResult> rezultati = service.streamFacetedSearch(upit)) {
+                assertEquals(ceo, rezultati.collect(Collectors.toList()));
+            }
+            assertEquals(ceo.subList(STRANA, 2 * STRANA), service.facetedSearch(upit, STRANA, STRANA).getFilmovi());
+
+            FacetQuery isti = FacetQuery.builder()
+                                        .value(FacetQuery.Facet.ZANR, "komedija")
+                                        .value(FacetQuery.Facet.ZANR, "DRAMA")
+                                        .range(FacetQuery.Range.GODINA, 1990, 2015)
+                                        .build();
+            assertEquals(upit, isti);
+            assertEquals(upit.hashCode(), isti.hashCode());
+            assertEquals(ceo, service.facetedSearch(isti, 0, Long.MAX_VALUE).getFilmovi());
+        }
+    }
+
+    @Test
+    void topFacetCountsArePrefixOfSortedCounts() {
+        try (SparqlQueryService service = new SparqlQueryService(catalog)) {
+            FacetSearchResult rezultat = service.facetedSearch(FacetQuery.builder().build(), 0, 0);
+            for (FacetQuery.Facet facet : FacetQuery.Facet.values()) {
+                Map<String, Integer> sve = rezultat.getFacetCounts(facet);
+                assertEquals(rezultat.getFacetValueCount(facet), sve.size());
+
+                List<Map.Entry<String, Integer>> ocekivano = new ArrayList<>(sve.entrySet());
+                ocekivano.sort(Comparator.<Map.Entry<String, Integer>>comparingInt(e -> -e.getValue())
+                                         .thenComparing(Map.Entry::getKey));
+                assertEquals(ocekivano, new ArrayList<>(sve.entrySet()), facet.getLabel());
+
+                for (int n : new int[] {0, 1, 5, sve.size() + 1}) {
+                    List<Map.Entry<String, Integer>> prvih = ocekivano.subList(0, Math.min(n, ocekivano.size()));
+                    assertEquals(prvih, new ArrayList<>(rezultat.getTopFacetCounts(facet, n).entrySet()),
+                                 facet.getLabel() + ", n=" + n);
+                }
+            }
+        }
+    }
+}
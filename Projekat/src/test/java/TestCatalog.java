@@ -0,0 +1,35 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Mali sintetički katalog za testove. Postavlja {@code film.katalog.podaci}
+ * pre prvog pristupa {@link FilmCatalog}-u; surefire svaku test klasu
+ * pokreće u novom JVM-u, pa jedna klasa koristi jednu veličinu kataloga.
+ * Veličina 0 znači katalog iz {@code film_podaci.ttl}.
+ */
+final class TestCatalog {
+
+    private static final long SEED = 42L;
+
+    private TestCatalog() {
+    }
+
+    static FilmCatalog load(int brojFilmova) throws IOException {
+        if (brojFilmova > 0) {
+            Path file = Path.of("target", "test-katalog-" + brojFilmova + ".ttl");
+            if (!Files.exists(file)) {
+                Files.createDirectories(file.getParent());
+                Path tmp = Files.createTempFile(file.getParent(), "test-katalog", ".tmp");
+                try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    new SyntheticCatalogGenerator(brojFilmova, SEED).write(out);
+                }
+                Files.move(tmp, file);
+            }
+            System.setProperty(FilmCatalog.DATA_FILE_PROPERTY, file.toString());
+        }
+        return FilmCatalog.getInstance();
+    }
+}
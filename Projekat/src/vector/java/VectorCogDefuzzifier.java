@@ -0,0 +1,42 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link CogDefuzzifier} u SIMD trakama: za blok od {@code SPECIES.length()}
+ * tačaka odjednom se odsecaju svi termi, spajaju sa MAX i dodaju u vektorske
+ * zbirove, koji se sabiraju u jedan broj tek na kraju. Pravi se samo preko
+ * {@link CogDefuzzifier#vector()}.
+ */
+final class VectorCogDefuzzifier extends CogDefuzzifier {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorCogDefuzzifier() {
+        super(SPECIES.length());
+    }
+
+    @Override
+    protected double centroid(double[] activations, int from, int to) {
+        int lanes = SPECIES.length();
+        // Nizovi su dopunjeni nulama, pa se granice mogu poravnati na ceo vektor
+        int start = from / lanes * lanes;
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        DoubleVector weightedSum = DoubleVector.zero(SPECIES);
+        for (int i = start; i < to; i += lanes) {
+            DoubleVector mu = DoubleVector.zero(SPECIES);
+            for (int t = 0; t < terms.length; t++) {
+                mu = mu.max(DoubleVector.fromArray(SPECIES, terms[t], i).min(activations[t]));
+            }
+            sum = sum.add(mu);
+            weightedSum = DoubleVector.fromArray(SPECIES, x, i).fma(mu, weightedSum);
+        }
+        return FilmKvalitetEvaluator.defuzzify(sum.reduceLanes(VectorOperators.ADD),
+                                               weightedSum.reduceLanes(VectorOperators.ADD));
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+}